@@ -1,5 +1,6 @@
 plugins {
     java
+    id("me.champeau.jmh") version "0.6.5"
 }
 
 group = "org.example"
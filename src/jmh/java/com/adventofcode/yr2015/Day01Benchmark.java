@@ -0,0 +1,46 @@
+package com.adventofcode.yr2015;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sequential scan vs. the chunked parallel prefix scan of {@link Day01} on a large random parenthesis stream.
+ *
+ * <p>Run with {@code ./gradlew jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class Day01Benchmark {
+    @Param({"16777216", "268435456"})
+    private int size;
+
+    private ByteBuffer input;
+
+    @Setup
+    public void createInput() {
+        final Random random = new Random(2015_01);
+        input = ByteBuffer.allocateDirect(size);
+        // slightly more "up" than "down", so that the basement is not always found right at the start
+        for (int i = 0; i < size; i++) {
+            input.put(i, (byte) (random.nextInt(100) < 51 ? '(' : ')'));
+        }
+        input.put(0, (byte) '(');
+    }
+
+    @Benchmark
+    public Floors sequential() {
+        return Day01.walk(input);
+    }
+
+    @Benchmark
+    public Floors parallel() {
+        return Day01.walkParallel(input);
+    }
+}
@@ -0,0 +1,96 @@
+package com.adventofcode.yr2015;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Lines per second for classifying the gates of a synthetic netlist: eight patterns compiled per line (as
+ * {@link Day07} did before) vs. the precompiled single pattern of {@link Day07Gate}.
+ *
+ * <p>Run with {@code ./gradlew jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(1)
+public class Day07ParserBenchmark {
+    private static final int LINES = 1_000_000;
+
+    private List<String> netlist;
+
+    @Setup
+    public void createNetlist() {
+        final Random random = new Random(2015_07);
+        final String[] operations = {"AND", "OR"};
+        netlist = new ArrayList<>(LINES);
+        netlist.add("123 -> " + wire(0));
+        for (int i = 1; i < LINES; i++) {
+            final String in = wire(random.nextInt(i));
+            final String out = " -> " + wire(i);
+            netlist.add(switch (random.nextInt(5)) {
+                case 0 -> in + out;
+                case 1 -> "NOT " + in + out;
+                case 2 -> in + " LSHIFT " + random.nextInt(16) + out;
+                case 3 -> in + " RSHIFT " + random.nextInt(16) + out;
+                default -> in + " " + operations[random.nextInt(2)] + " " + wire(random.nextInt(i)) + out;
+            });
+        }
+    }
+
+    /**
+     * wire names only consist of lowercase letters: a, b, ..., z, ba, bb, ...
+     */
+    private static String wire(final int id) {
+        final StringBuilder sb = new StringBuilder();
+        int rest = id;
+        do {
+            sb.append((char) ('a' + rest % 26));
+            rest /= 26;
+        } while (rest > 0);
+        return sb.reverse().toString();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LINES)
+    public void patternsPerLine(final Blackhole blackhole) {
+        for (String line : netlist) {
+            blackhole.consume(classifyWithPatternsPerLine(line));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LINES)
+    public void precompiledSinglePattern(final Blackhole blackhole) {
+        for (String line : netlist) {
+            blackhole.consume(Day07Gate.parse(line));
+        }
+    }
+
+    /**
+     * the former front end of {@link Day07#parse(String)} (without applying the gate)
+     */
+    private static int classifyWithPatternsPerLine(final String command) {
+        final Pattern[] patterns = {
+                Pattern.compile("^(?<value>\\d+) -> (?<wire>\\D+)$"),
+                Pattern.compile("^(?<wireIn>[a-z]+) -> (?<wireOut>\\D+)$"),
+                Pattern.compile("^NOT (?<wireIn>\\D+) -> (?<wireOut>\\D+)$"),
+                Pattern.compile("^(?<wireA>\\D+) AND (?<wireB>\\D+) -> (?<wireOut>\\D+)$"),
+                Pattern.compile("^(?<valueA>\\d+) AND (?<wireB>\\D+) -> (?<wireOut>\\D+)$"),
+                Pattern.compile("^(?<wireA>\\D+) OR (?<wireB>\\D+) -> (?<wireOut>\\D+)$"),
+                Pattern.compile("^(?<wireIn>\\D+) LSHIFT (?<value>\\d+) -> (?<wireOut>\\D+)$"),
+                Pattern.compile("^(?<wireIn>\\D+) RSHIFT (?<value>\\d+) -> (?<wireOut>\\D+)$")};
+        for (int i = 0; i < patterns.length; i++) {
+            if (patterns[i].matcher(command).matches())
+                return i;
+        }
+        return -1;
+    }
+}
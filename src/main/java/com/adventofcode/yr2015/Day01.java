@@ -1,24 +1,223 @@
 package com.adventofcode.yr2015;
 
-import java.util.List;
-import java.util.function.Function;
-import java.util.stream.Collectors;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 
 public class Day01 {
+    private static final int READ_BUFFER_SIZE = 8192;
+    /**
+     * bytes per chunk of {@link #walkParallel(ByteBuffer)}
+     */
+    private static final int CHUNK_SIZE = 1 << 20;
+
     public static int getFloor(final String input) {
-        var collected = input.chars()
-                .mapToObj(x -> String.valueOf((char) x))
-                .collect(Collectors.groupingBy(Function.identity()));
-        var up = collected.getOrDefault("(", List.of()).size();
-        var down = collected.getOrDefault(")", List.of()).size();
-        return up - down;
+        return Math.toIntExact(walk(input).floor());
     }
 
     public static int findBasement(final String input) {
-        for (int i = 1; i <= input.length(); i++) {
-            if (-1 == getFloor(input.substring(0, i)))
-                return i;
+        return Math.toIntExact(walk(input).basement());
+    }
+
+    /**
+     * Follow all instructions once and keep track of the floor and the first time the basement is entered. Needs
+     * constant memory, so the input can be of any size.
+     */
+    public static Floors walk(final CharSequence input) {
+        final var counter = new FloorCounter();
+        for (int i = 0; i < input.length(); i++) {
+            counter.step(input.charAt(i));
+        }
+        return counter.toFloors();
+    }
+
+    /**
+     * @see #walk(CharSequence)
+     */
+    public static Floors walk(final byte[] input) {
+        final var counter = new FloorCounter();
+        for (final byte b : input) {
+            counter.step(b);
+        }
+        return counter.toFloors();
+    }
+
+    /**
+     * Reads the remaining bytes of the buffer (e.g. a memory mapped file) without changing its position.
+     *
+     * @see #walk(CharSequence)
+     */
+    public static Floors walk(final ByteBuffer input) {
+        final var counter = new FloorCounter();
+        for (int i = input.position(); i < input.limit(); i++) {
+            counter.step(input.get(i));
+        }
+        return counter.toFloors();
+    }
+
+    /**
+     * @see #walk(CharSequence)
+     */
+    public static Floors walk(final Reader input) throws IOException {
+        final var counter = new FloorCounter();
+        final char[] buffer = new char[READ_BUFFER_SIZE];
+        int read;
+        while ((read = input.read(buffer)) != -1) {
+            for (int i = 0; i < read; i++) {
+                counter.step(buffer[i]);
+            }
+        }
+        return counter.toFloors();
+    }
+
+    /**
+     * Same as {@link #walk(ByteBuffer)}, but for very large inputs.
+     *
+     * <p>The input is cut into chunks and every chunk is scanned in parallel for its net change of floors and the lowest
+     * floor reached inside it (relative to its start). A fork-join reduction of these pairs gives the final floor and
+     * the lowest floor of all. Only if that one is in the basement, a second pass goes through the chunk results in
+     * order and scans the first chunk whose lowest floor goes below zero to find the exact position of the basement.
+     */
+    public static Floors walkParallel(final ByteBuffer input) {
+        return walkParallel(input, CHUNK_SIZE);
+    }
+
+    static Floors walkParallel(final ByteBuffer input, final int chunkSize) {
+        final int start = input.position();
+        final int length = input.limit() - start;
+        // as long, because near 2 GiB the int arithmetic overflows
+        final int chunks = (int) ((length + (long) chunkSize - 1) / chunkSize);
+        final long[] deltas = new long[chunks];
+        final long[] minimums = new long[chunks];
+
+        final Scan total = ForkJoinPool.commonPool().invoke(new ChunkScan(input, chunkSize, deltas, minimums, 0, chunks));
+        if (total.min() == Long.MAX_VALUE || total.min() > -1)
+            return new Floors(total.delta(), 0); // never in the basement
+
+        long floor = 0;
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            if (minimums[chunk] != Long.MAX_VALUE && floor + minimums[chunk] <= -1) {
+                // the basement is somewhere in here
+                final var counter = new FloorCounter(floor, (long) chunk * chunkSize);
+                final int from = (int) (start + (long) chunk * chunkSize);
+                final int to = (int) Math.min((long) from + chunkSize, input.limit());
+                for (int i = from; i < to && counter.basement == 0; i++) {
+                    counter.step(input.get(i));
+                }
+                return new Floors(total.delta(), counter.basement);
+            }
+            floor += deltas[chunk];
+        }
+        return new Floors(total.delta(), 0);
+    }
+
+    /**
+     * @see #walkParallel(ByteBuffer)
+     */
+    public static Floors walkParallel(final byte[] input) {
+        return walkParallel(ByteBuffer.wrap(input));
+    }
+
+    /**
+     * @param delta net change of floors
+     * @param min   lowest floor relative to the start ({@link Long#MAX_VALUE} if empty)
+     */
+    private record Scan(long delta, long min) {
+        Scan followedBy(final Scan next) {
+            final long nextMin = next.min == Long.MAX_VALUE ? Long.MAX_VALUE : delta + next.min;
+            return new Scan(delta + next.delta, Math.min(min, nextMin));
+        }
+    }
+
+    private static class ChunkScan extends RecursiveTask<Scan> {
+        private final ByteBuffer input;
+        private final int chunkSize;
+        private final long[] deltas;
+        private final long[] minimums;
+        private final int fromChunk;
+        private final int toChunk;
+
+        ChunkScan(final ByteBuffer input, final int chunkSize, final long[] deltas, final long[] minimums,
+                  final int fromChunk, final int toChunk) {
+            this.input = input;
+            this.chunkSize = chunkSize;
+            this.deltas = deltas;
+            this.minimums = minimums;
+            this.fromChunk = fromChunk;
+            this.toChunk = toChunk;
+        }
+
+        @Override
+        protected Scan compute() {
+            if (toChunk - fromChunk == 1)
+                return scan(fromChunk);
+            if (toChunk <= fromChunk)
+                return new Scan(0, Long.MAX_VALUE);
+            final int middle = (fromChunk + toChunk) >>> 1;
+            final var left = new ChunkScan(input, chunkSize, deltas, minimums, fromChunk, middle);
+            final var right = new ChunkScan(input, chunkSize, deltas, minimums, middle, toChunk);
+            left.fork();
+            final Scan rightResult = right.compute();
+            return left.join().followedBy(rightResult);
+        }
+
+        private Scan scan(final int chunk) {
+            final int from = (int) (input.position() + (long) chunk * chunkSize);
+            final int to = (int) Math.min((long) from + chunkSize, input.limit());
+            long floor = 0;
+            long min = Long.MAX_VALUE;
+            for (int i = from; i < to; i++) {
+                final byte c = input.get(i);
+                if (c == '(') {
+                    floor++;
+                } else if (c == ')') {
+                    floor--;
+                    if (floor < min)
+                        min = floor;
+                }
+            }
+            deltas[chunk] = floor;
+            minimums[chunk] = min;
+            return new Scan(floor, min);
+        }
+    }
+
+    private static class FloorCounter {
+        private long floor;
+        private long position;
+        private long basement = 0;
+
+        FloorCounter() {
+            this(0, 0);
+        }
+
+        FloorCounter(final long floor, final long position) {
+            this.floor = floor;
+            this.position = position;
+        }
+
+        void step(final int c) {
+            position++;
+            if (c == '(') {
+                floor++;
+            } else if (c == ')') {
+                floor--;
+                if (floor == -1 && basement == 0)
+                    basement = position;
+            }
+        }
+
+        Floors toFloors() {
+            return new Floors(floor, basement);
         }
-        return 0;
     }
 }
+
+/**
+ * @param floor    the floor after all instructions
+ * @param basement position (starting with 1) of the first instruction that enters the basement, {@code 0} if never
+ */
+record Floors(long floor, long basement) {
+}
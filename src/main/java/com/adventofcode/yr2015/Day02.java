@@ -1,6 +1,11 @@
 package com.adventofcode.yr2015;
 
+import org.github.ruderphilipp.LineSplitter;
+
+import java.nio.ByteBuffer;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 import java.util.stream.IntStream;
 
 public class Day02 {
@@ -43,4 +48,111 @@ public class Day02 {
     public static int getRibbonLengthWithBow(final List<String> input) {
         return input.stream().mapToInt(Day02::getRibbonLengthWithBow).sum();
     }
+
+    /**
+     * Paper and ribbon for a whole list of presents ({@code LxWxH}, one per line) in one pass directly over the bytes,
+     * without any allocation per line.
+     */
+    public static Wrapping getWrapping(final byte[] input) {
+        return getWrapping(ByteBuffer.wrap(input));
+    }
+
+    /**
+     * Reads the remaining bytes of the buffer (e.g. a memory mapped file) without changing its position.
+     *
+     * @see #getWrapping(byte[])
+     */
+    public static Wrapping getWrapping(final ByteBuffer input) {
+        return getWrapping(input, input.position(), input.limit());
+    }
+
+    /**
+     * Same as {@link #getWrapping(ByteBuffer)}, but the lines are split into ranges that are summed up in parallel.
+     */
+    public static Wrapping getWrappingParallel(final ByteBuffer input) {
+        return ForkJoinPool.commonPool().invoke(new WrappingTask(input, input.position(), input.limit()));
+    }
+
+    private static Wrapping getWrapping(final ByteBuffer input, final int from, final int to) {
+        long paper = 0;
+        long ribbon = 0;
+        // the first two dimensions of the current line (the third one is the current value)
+        final int[] dimensions = new int[2];
+        int dimension = 0;
+        int value = 0;
+        boolean hasDigits = false;
+
+        for (int i = from; i <= to; i++) {
+            final int c = i < to ? input.get(i) : '\n';
+            if (c >= '0' && c <= '9') {
+                if (value > (Integer.MAX_VALUE - (c - '0')) / 10)
+                    throw new IllegalArgumentException("number too large at byte " + i);
+                value = value * 10 + (c - '0');
+                hasDigits = true;
+            } else if (c == 'x') {
+                if (!hasDigits || dimension >= 2)
+                    throw new IllegalArgumentException("unexpected 'x' at byte " + i);
+                dimensions[dimension++] = value;
+                value = 0;
+                hasDigits = false;
+            } else if (c == '\n') {
+                if (dimension == 2 && hasDigits) {
+                    final long l = dimensions[0];
+                    final long w = dimensions[1];
+                    final long h = value;
+                    final long smallestSide = Math.min(l * w, Math.min(w * h, h * l));
+                    paper += 2 * (l * w + w * h + h * l) + smallestSide;
+                    ribbon += 2 * (l + w + h - Math.max(l, Math.max(w, h))) + l * w * h;
+                } else if (dimension != 0 || hasDigits) {
+                    throw new IllegalArgumentException("incomplete present before byte " + i);
+                }
+                dimension = 0;
+                value = 0;
+                hasDigits = false;
+            } else if (c != '\r' && c != ' ') {
+                throw new IllegalArgumentException("unexpected character '" + (char) c + "' at byte " + i);
+            }
+        }
+        return new Wrapping(paper, ribbon);
+    }
+
+    private static class WrappingTask extends RecursiveTask<Wrapping> {
+        private static final int THRESHOLD = 1 << 20;
+
+        private final ByteBuffer input;
+        private final int from;
+        private final int to;
+
+        WrappingTask(final ByteBuffer input, final int from, final int to) {
+            this.input = input;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Wrapping compute() {
+            if (to - from <= THRESHOLD)
+                return getWrapping(input, from, to);
+
+            // split behind a line break, so that no line is cut in half
+            final int middle = LineSplitter.split(input, from, to);
+            if (middle == LineSplitter.NO_SPLIT)
+                return getWrapping(input, from, to);
+            final var left = new WrappingTask(input, from, middle);
+            final var right = new WrappingTask(input, middle, to);
+            left.fork();
+            final Wrapping rightResult = right.compute();
+            return left.join().plus(rightResult);
+        }
+    }
+}
+
+/**
+ * @param paper  square feet of wrapping paper (with slack)
+ * @param ribbon feet of ribbon (with bow)
+ */
+record Wrapping(long paper, long ribbon) {
+    Wrapping plus(final Wrapping other) {
+        return new Wrapping(paper + other.paper, ribbon + other.ribbon);
+    }
 }
@@ -1,22 +1,16 @@
 package com.adventofcode.yr2015;
 
+import org.github.ruderphilipp.LongHashSet;
+
 import java.util.HashSet;
 import java.util.Objects;
 import java.util.Set;
+import java.util.stream.IntStream;
 
 public class Day03 {
     @SuppressWarnings("unused")
     public static int countHouses(final String navigationInput) {
-        Set<Coordinate> visited = new HashSet<>();
-        var start = new Coordinate(0, 0);
-        visited.add(start);
-        var previous = start;
-        for (char c : navigationInput.toCharArray()) {
-            Coordinate current = getCoordinate(previous, c);
-            visited.add(current);
-            previous = current;
-        }
-        return visited.size();
+        return countHouses(navigationInput, 1);
     }
 
     public static int countHouses2(final String navigationInput) {
@@ -39,23 +33,90 @@ public class Day03 {
     }
 
     public static int countHousesWithRoboSanta(final String navigationInput) {
-        var start = new Coordinate(0, 0);
-        boolean isSantasTurn = true;
+        // immer abwechselnd
+        return countHouses(navigationInput, 2);
+    }
 
-        var santa = new Person(start);
-        var robo = new Person(start);
+    /**
+     * Several deliverers start at the same house and take turns: the first one follows the first move, the second one
+     * the second move and so on.
+     *
+     * <p>All of them write into one set of visited houses (both coordinates packed into one {@code long}), so the
+     * union needs no copying.
+     *
+     * @return number of houses that receive at least one present
+     */
+    public static int countHouses(final CharSequence navigationInput, final int deliverers) {
+        if (deliverers < 1)
+            throw new IllegalArgumentException("at least one deliverer is needed, but was: " + deliverers);
+        final int[] xs = new int[deliverers];
+        final int[] ys = new int[deliverers];
+        final LongHashSet visited = new LongHashSet();
+        visited.add(pack(0, 0));
 
-        for (char c : navigationInput.toCharArray()) {
-            var who = isSantasTurn ? santa : robo;
-            who.visit(getCoordinate(who.getLastVisited(), c));
-            // immer abwechselnd
-            isSantasTurn = !isSantasTurn;
+        int who = 0;
+        for (int i = 0; i < navigationInput.length(); i++) {
+            final char c = navigationInput.charAt(i);
+            switch (c) {
+                case '>' -> xs[who]++;
+                case '<' -> xs[who]--;
+                case '^' -> ys[who]++;
+                case 'v' -> ys[who]--;
+                default -> throw new UnsupportedOperationException("Character is not allowed for directions: " + c);
+            }
+            visited.add(pack(xs[who], ys[who]));
+            if (++who == deliverers)
+                who = 0;
+        }
+        return visited.size();
+    }
+
+    /**
+     * Same as {@link #countHouses(CharSequence, int)}, but every deliverer walks its own moves ({@code i, i+k, i+2k,
+     * ...}) on its own thread into its own set of houses. The sets are merged afterward, always the smaller one into the
+     * larger one.
+     */
+    public static int countHousesParallel(final CharSequence navigationInput, final int deliverers) {
+        if (deliverers < 1)
+            throw new IllegalArgumentException("at least one deliverer is needed, but was: " + deliverers);
+        return IntStream.range(0, deliverers)
+                .parallel()
+                .mapToObj(i -> walk(navigationInput, i, deliverers))
+                .reduce(Day03::merge)
+                .orElseThrow()
+                .size();
+    }
+
+    private static LongHashSet walk(final CharSequence navigationInput, final int first, final int step) {
+        final LongHashSet visited = new LongHashSet();
+        int x = 0;
+        int y = 0;
+        visited.add(pack(x, y));
+        for (int i = first; i < navigationInput.length(); i += step) {
+            final char c = navigationInput.charAt(i);
+            switch (c) {
+                case '>' -> x++;
+                case '<' -> x--;
+                case '^' -> y++;
+                case 'v' -> y--;
+                default -> throw new UnsupportedOperationException("Character is not allowed for directions: " + c);
+            }
+            visited.add(pack(x, y));
         }
+        return visited;
+    }
+
+    private static LongHashSet merge(final LongHashSet a, final LongHashSet b) {
+        if (a.size() >= b.size()) {
+            a.addAll(b);
+            return a;
+        }
+        b.addAll(a);
+        return b;
+    }
 
-        var totallyVisited = new HashSet<>();
-        totallyVisited.addAll(santa.getAllVisited());
-        totallyVisited.addAll(robo.getAllVisited());
-        return totallyVisited.size();
+    static long pack(final int x, final int y) {
+        return ((long) x << 32) | (y & 0xFFFFFFFFL);
     }
 
     record Coordinate(int x, int y) {
@@ -1,15 +1,26 @@
 package com.adventofcode.yr2015;
 
-import org.apache.commons.codec.digest.DigestUtils;
+import org.github.ruderphilipp.SaltedMd5;
 
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.IntStream;
 
 public class Day04 {
+    /**
+     * number of nonces a worker claims at once
+     */
+    private static final int CHUNK_SIZE = 1 << 14;
+
     /**
      * To do this, he needs to find MD5 hashes which, in hexadecimal, start with at least five zeroes. The input to the
      * MD5 hash is some secret key (your puzzle input, given below) followed by a number in decimal. To mine AdventCoins,
      * you must find Santa the lowest positive number (no leading zeroes: 1, 2, 3, ...) that produces such a hash.
      *
+     * <p>The nonce space is cut into chunks which are handed out in ascending order to one worker per core (each with
+     * its own {@link SaltedMd5}). Every worker stops as soon as its next chunk starts behind the best nonce found so
+     * far, so the result is always the lowest qualifying number - no matter which worker finds it first.
+     *
      * @param key   The secret key
      * @param zeros required number of leading zeros
      * @return The rest of the hash key
@@ -19,16 +30,38 @@ public class Day04 {
             throw new UnsupportedOperationException("no key");
         if (zeros < 1)
             throw new UnsupportedOperationException("too low number of leading zeros");
+        if (zeros >= 2 * SaltedMd5.LENGTH) // at least one different char afterwards
+            throw new UnsupportedOperationException("too high number of leading zeros");
+
+        final AtomicInteger nextChunk = new AtomicInteger(0);
+        final AtomicInteger best = new AtomicInteger(Integer.MAX_VALUE);
+
+        IntStream.range(0, Runtime.getRuntime().availableProcessors())
+                .parallel()
+                .forEach(worker -> mine(key, zeros, nextChunk, best));
 
-        return IntStream.range(1, Integer.MAX_VALUE)
-                .filter(i -> beginsWithZeros(md5sum(key, i), zeros))
-                .findFirst()
-                .orElseThrow();
+        if (best.get() == Integer.MAX_VALUE)
+            throw new NoSuchElementException("no nonce found for " + key);
+        return best.get();
     }
 
-    private static String md5sum(final String key, final int rest) {
-        var password = key + rest;
-        return DigestUtils.md5Hex(password).toLowerCase();
+    private static void mine(final String key, final int zeros, final AtomicInteger nextChunk, final AtomicInteger best) {
+        final SaltedMd5 md5 = new SaltedMd5(key);
+
+        while (true) {
+            final long start = (long) nextChunk.getAndIncrement() * CHUNK_SIZE + 1;
+            if (start >= best.get())
+                return;
+            final long end = Math.min(start + CHUNK_SIZE, Integer.MAX_VALUE);
+            md5.setCounter(start);
+            for (int nonce = (int) start; nonce < end; nonce++, md5.increment()) {
+                if (beginsWithZeros(md5.digest(), zeros)) {
+                    best.accumulateAndGet(nonce, Math::min);
+                    // everything behind this one in the chunk is higher anyway
+                    break;
+                }
+            }
+        }
     }
 
     protected static boolean beginsWithZeros(final String input, final int zeros) {
@@ -36,4 +69,13 @@ public class Day04 {
             return false;
         return input.startsWith("0".repeat(zeros));
     }
+
+    /**
+     * Same check as {@link #beginsWithZeros(String, int)} but on the raw digest.
+     */
+    protected static boolean beginsWithZeros(final byte[] digest, final int zeros) {
+        if (digest == null || 2 * digest.length < zeros + 1) // at least one different char afterwards
+            return false;
+        return SaltedMd5.startsWithZeros(digest, zeros);
+    }
 }
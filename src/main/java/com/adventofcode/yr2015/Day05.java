@@ -1,10 +1,30 @@
 package com.adventofcode.yr2015;
 
+import org.github.ruderphilipp.LineSplitter;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 
 public class Day05 {
     private static final List<Character> VOWELS = List.of('a', 'e', 'i', 'o', 'u');
     private static final List<String> FORBIDDEN = List.of("ab", "cd", "pq", "xy");
+    private static final ThreadLocal<Classifier> CLASSIFIER = ThreadLocal.withInitial(Classifier::new);
+    /**
+     * one per rule, in the order of the bits of {@link Classifier}
+     */
+    private static final int REJECTION_COUNTERS = 5;
+    /**
+     * largest part of a file that is mapped into memory at once
+     */
+    private static final int REGION_SIZE = 1 << 30;
 
     /**
      * Santa needs help figuring out which strings in his text file are naughty or nice.
@@ -20,7 +40,10 @@ public class Day05 {
      * @return {@code true} if it nice or {@code false} if it is naughty
      */
     public static boolean isNice_1(final String input) {
-        return containsVowels(input, 3) && containsRepeatedLetter(input, 2) && !containsForbiddenStrings(input);
+        final int failed = CLASSIFIER.get().classify(input);
+        if (failed == Classifier.NOT_LOWERCASE)
+            return containsVowels(input, 3) && containsRepeatedLetter(input, 2) && !containsForbiddenStrings(input);
+        return (failed & Classifier.RULES_1) == 0;
     }
 
     protected static boolean containsVowels(final String input, final int minimumNumber) {
@@ -72,7 +95,10 @@ public class Day05 {
      * @see #isNice_1(String)
      */
     public static boolean isNice_2(final String input) {
-        return hasTwoLettersThatAppearTwice(input) && containsLetterWithRepeatedLetterBetween(input);
+        final int failed = CLASSIFIER.get().classify(input);
+        if (failed == Classifier.NOT_LOWERCASE)
+            return hasTwoLettersThatAppearTwice(input) && containsLetterWithRepeatedLetterBetween(input);
+        return (failed & Classifier.RULES_2) == 0;
     }
 
     protected static boolean hasTwoLettersThatAppearTwice(final String input) {
@@ -94,4 +120,280 @@ public class Day05 {
         }
         return false;
     }
+
+    /**
+     * Classify a whole file of words (one per line) by the rules of both parts at once.
+     *
+     * <p>The file is memory mapped in regions (cut at line breaks) which are classified in parallel, directly on the
+     * bytes. Only words with characters other than a to z are decoded to check them with the single rules.
+     */
+    public static WordStatistics classify(final Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final long fileSize = channel.size();
+            var result = WordStatistics.NONE;
+            long position = 0;
+            while (position < fileSize) {
+                final long length = Math.min(REGION_SIZE, fileSize - position);
+                final ByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                int end = (int) length;
+                if (position + length < fileSize) {
+                    // only complete lines, the rest is part of the next region
+                    while (end > 0 && region.get(end - 1) != '\n')
+                        end--;
+                    if (end == 0)
+                        throw new IllegalArgumentException("line too long at byte " + position);
+                }
+                result = result.plus(classify(region.limit(end)));
+                position += end;
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Reads the remaining bytes of the buffer (one word per line) without changing its position.
+     *
+     * @see #classify(Path)
+     */
+    public static WordStatistics classify(final ByteBuffer input) {
+        return ForkJoinPool.commonPool().invoke(new ClassifyTask(input, input.position(), input.limit()));
+    }
+
+    private static WordStatistics classify(final ByteBuffer input, final int from, final int to) {
+        final var classifier = CLASSIFIER.get();
+        final long[] rejected = new long[REJECTION_COUNTERS];
+        long words = 0;
+        long nice1 = 0;
+        long nice2 = 0;
+
+        int i = from;
+        while (i < to) {
+            final int start = i;
+            classifier.reset();
+            boolean understood = true;
+            for (; i < to; i++) {
+                final byte c = input.get(i);
+                if (c == '\n')
+                    break;
+                if (c == '\r' && (i + 1 == to || input.get(i + 1) == '\n'))
+                    continue;
+                if (understood)
+                    understood = classifier.accept(c);
+            }
+            int end = i;
+            if (end > start && input.get(end - 1) == '\r')
+                end--;
+            i++; // line break
+            if (end == start)
+                continue; // empty line
+
+            final int failed = understood ? classifier.failed() : failedBySingleRules(input, start, end);
+            words++;
+            if ((failed & Classifier.RULES_1) == 0)
+                nice1++;
+            if ((failed & Classifier.RULES_2) == 0)
+                nice2++;
+            for (int rule = 0; rule < REJECTION_COUNTERS; rule++) {
+                rejected[rule] += (failed >>> rule) & 1;
+            }
+        }
+        return new WordStatistics(words, nice1, nice2,
+                rejected[0], rejected[1], rejected[2], rejected[3], rejected[4]);
+    }
+
+    private static int failedBySingleRules(final ByteBuffer input, final int from, final int to) {
+        final byte[] bytes = new byte[to - from];
+        input.get(from, bytes);
+        final String word = new String(bytes, StandardCharsets.ISO_8859_1);
+
+        int failed = 0;
+        if (!containsVowels(word, 3))
+            failed |= Classifier.VOWELS;
+        if (!containsRepeatedLetter(word, 2))
+            failed |= Classifier.DOUBLE_LETTER;
+        if (containsForbiddenStrings(word))
+            failed |= Classifier.FORBIDDEN_STRING;
+        if (!hasTwoLettersThatAppearTwice(word))
+            failed |= Classifier.PAIR_TWICE;
+        if (!containsLetterWithRepeatedLetterBetween(word))
+            failed |= Classifier.REPEAT_WITH_ONE_BETWEEN;
+        return failed;
+    }
+
+    private static class ClassifyTask extends RecursiveTask<WordStatistics> {
+        private static final int THRESHOLD = 1 << 20;
+
+        private final ByteBuffer input;
+        private final int from;
+        private final int to;
+
+        ClassifyTask(final ByteBuffer input, final int from, final int to) {
+            this.input = input;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected WordStatistics compute() {
+            if (to - from <= THRESHOLD)
+                return classify(input, from, to);
+
+            // split behind a line break, so that no word is cut in half
+            final int middle = LineSplitter.split(input, from, to);
+            if (middle == LineSplitter.NO_SPLIT)
+                return classify(input, from, to);
+            final var left = new ClassifyTask(input, from, middle);
+            final var right = new ClassifyTask(input, middle, to);
+            left.fork();
+            final WordStatistics rightResult = right.compute();
+            return left.join().plus(rightResult);
+        }
+    }
+
+    /**
+     * Checks the rules of both parts in one scan from left to right, character by character, with a small fixed state
+     * and without creating any strings. Only lowercase letters from a to z are understood, everything else has to be
+     * checked by the single rules above.
+     *
+     * <p>Not thread-safe, but can be reused for any number of strings.
+     */
+    static final class Classifier {
+        static final int VOWELS = 1;
+        static final int DOUBLE_LETTER = 1 << 1;
+        static final int FORBIDDEN_STRING = 1 << 2;
+        static final int PAIR_TWICE = 1 << 3;
+        static final int REPEAT_WITH_ONE_BETWEEN = 1 << 4;
+        static final int RULES_1 = VOWELS | DOUBLE_LETTER | FORBIDDEN_STRING;
+        static final int RULES_2 = PAIR_TWICE | REPEAT_WITH_ONE_BETWEEN;
+        /**
+         * result if the input contains a character the classifier does not understand
+         */
+        static final int NOT_LOWERCASE = -1;
+
+        private static final int VOWEL_BITS = 1 | 1 << ('e' - 'a') | 1 << ('i' - 'a') | 1 << ('o' - 'a') | 1 << ('u' - 'a');
+        /**
+         * first letters of the forbidden strings (the second one is always the next letter in the alphabet)
+         */
+        private static final int FORBIDDEN_BITS = 1 | 1 << ('c' - 'a') | 1 << ('p' - 'a') | 1 << ('x' - 'a');
+        private static final int LETTERS = 26;
+
+        /**
+         * start position of the first occurrence of every pair of letters, only valid if the stamp of the pair is the one
+         * of the current string (saves clearing the table for every string)
+         */
+        private final int[] pairStart = new int[LETTERS * LETTERS];
+        private final int[] pairStamp = new int[LETTERS * LETTERS];
+        private int stamp = 0;
+
+        private int position;
+        private int previous;
+        private int beforePrevious;
+        private int vowels;
+        private boolean doubleLetter;
+        private boolean forbidden;
+        private boolean pairTwice;
+        private boolean repeatWithOneBetween;
+
+        /**
+         * @return the rules that are <em>not</em> fulfilled (as bit mask), or {@link #NOT_LOWERCASE}
+         */
+        int classify(final CharSequence input) {
+            reset();
+            for (int i = 0; i < input.length(); i++) {
+                if (!accept(input.charAt(i)))
+                    return NOT_LOWERCASE;
+            }
+            return failed();
+        }
+
+        void reset() {
+            if (++stamp == 0) {
+                // wrapped around after 2^32 strings
+                Arrays.fill(pairStamp, 0);
+                stamp = 1;
+            }
+            position = 0;
+            previous = -1;
+            beforePrevious = -1;
+            vowels = 0;
+            doubleLetter = false;
+            forbidden = false;
+            pairTwice = false;
+            repeatWithOneBetween = false;
+        }
+
+        /**
+         * @return {@code false} if the character is not a lowercase letter from a to z
+         */
+        boolean accept(final int c) {
+            final int letter = c - 'a';
+            if (letter < 0 || letter >= LETTERS)
+                return false;
+
+            vowels += (VOWEL_BITS >>> letter) & 1;
+            if (previous >= 0) {
+                if (previous == letter)
+                    doubleLetter = true;
+                else if (letter == previous + 1 && (FORBIDDEN_BITS >>> previous & 1) != 0)
+                    forbidden = true;
+
+                final int pair = previous * LETTERS + letter;
+                final int start = position - 1;
+                if (pairStamp[pair] != stamp) {
+                    pairStamp[pair] = stamp;
+                    pairStart[pair] = start;
+                } else if (start - pairStart[pair] >= 2) {
+                    pairTwice = true;
+                }
+            }
+            if (beforePrevious == letter)
+                repeatWithOneBetween = true;
+
+            beforePrevious = previous;
+            previous = letter;
+            position++;
+            return true;
+        }
+
+        int failed() {
+            int failed = 0;
+            if (vowels < 3)
+                failed |= VOWELS;
+            if (!doubleLetter)
+                failed |= DOUBLE_LETTER;
+            if (forbidden)
+                failed |= FORBIDDEN_STRING;
+            if (!pairTwice)
+                failed |= PAIR_TWICE;
+            if (!repeatWithOneBetween)
+                failed |= REPEAT_WITH_ONE_BETWEEN;
+            return failed;
+        }
+    }
+}
+
+/**
+ * Result of {@link Day05#classify(Path)}. The rejection counters count every word that breaks the rule, so a word can
+ * be counted by several of them.
+ *
+ * @param words                       number of (non-empty) words
+ * @param nice1                       words that are nice by the rules of part 1
+ * @param nice2                       words that are nice by the rules of part 2
+ * @param withoutVowels               words with less than three vowels
+ * @param withoutDoubleLetter         words without a letter that appears twice in a row
+ * @param withForbiddenString         words with {@code ab}, {@code cd}, {@code pq} or {@code xy}
+ * @param withoutPairTwice            words without a pair of letters that appears twice (without overlapping)
+ * @param withoutRepeatWithOneBetween words without a letter that repeats with exactly one letter between
+ */
+record WordStatistics(long words, long nice1, long nice2,
+                      long withoutVowels, long withoutDoubleLetter, long withForbiddenString,
+                      long withoutPairTwice, long withoutRepeatWithOneBetween) {
+    static final WordStatistics NONE = new WordStatistics(0, 0, 0, 0, 0, 0, 0, 0);
+
+    WordStatistics plus(final WordStatistics other) {
+        return new WordStatistics(words + other.words, nice1 + other.nice1, nice2 + other.nice2,
+                withoutVowels + other.withoutVowels, withoutDoubleLetter + other.withoutDoubleLetter,
+                withForbiddenString + other.withForbiddenString, withoutPairTwice + other.withoutPairTwice,
+                withoutRepeatWithOneBetween + other.withoutRepeatWithOneBetween);
+    }
 }
@@ -1,65 +1,131 @@
 package com.adventofcode.yr2015;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.LongStream;
 
 abstract class Day06 {
-    public void parse(final String instruction) {
-        var param = " through ";
-        if (!instruction.contains(param))
-            throw new IllegalArgumentException("no split parameter in " + instruction);
+    /**
+     * minimum number of rows a worker of {@link #parseAll(List)} gets
+     */
+    private static final int MIN_ROWS_PER_STRIPE = 8;
 
-        var command = getCommand(instruction);
-        var restAfterCommand = instruction.substring(command.text.length());
-        final String[] split = splitIntoTwoParts(restAfterCommand, param);
+    public void parse(final String instruction) {
+        var parsed = new Day06Instructions(1);
+        parsed.add(instruction);
+        apply(parsed);
+    }
 
-        var start = getCoordinate(split[0]);
-        var end = getCoordinate(split[1]);
+    /**
+     * Apply a whole batch of instructions.
+     *
+     * <p>An instruction only changes the rows inside its own rectangle, so if a variant has independent rows (see
+     * {@link #getNumberOfRows()}), the grid is cut into horizontal stripes and every fork-join worker replays the whole
+     * list of instructions in order, but only for the rows of its own stripe. No locks are needed since no row is
+     * shared between two workers.
+     */
+    public void parseAll(final List<String> instructions) {
+        parseAll(Day06Instructions.of(instructions));
+    }
 
-        doOperation(command, start, end);
+    /**
+     * Same as {@link #parseAll(List)}, but reads the instructions directly from a (memory mapped) file.
+     */
+    public void parseAll(final Path file) throws IOException {
+        parseAll(Day06Instructions.read(file));
     }
 
-    protected void doOperation(final Command how, final Coordinate start, final Coordinate end) {
-        for (int line = start.x(); line <= end.x(); line++) {
-            for (int row = start.y(); row <= end.y(); row++) {
-                change(how, line, row);
-            }
+    private void parseAll(final Day06Instructions instructions) {
+        final int rows = getNumberOfRows();
+        if (rows <= 0) {
+            apply(instructions);
+            return;
         }
+        final int stripe = Math.max(MIN_ROWS_PER_STRIPE, rows / (4 * ForkJoinPool.getCommonPoolParallelism()));
+        ForkJoinPool.commonPool().invoke(new RowStripe(instructions, 0, rows, stripe));
     }
 
-    protected abstract void change(final Command what, final int line, final int row);
+    /**
+     * Apply all instructions one after the other.
+     */
+    private void apply(final Day06Instructions instructions) {
+        for (int i = 0; i < instructions.size(); i++) {
+            var start = new Coordinate(instructions.fromX(i), instructions.fromY(i));
+            var end = new Coordinate(instructions.toX(i), instructions.toY(i));
+            doOperation(instructions.command(i), start, end);
+        }
+    }
 
-    private String[] splitIntoTwoParts(final String command, final String needle) {
-        final String[] split = command.split(needle);
-        for (int i = 0; i < split.length; i++) {
-            split[i] = split[i].strip();
+    /**
+     * Apply all instructions to the rows {@code fromRow} (inclusive) to {@code toRow} (exclusive) only.
+     */
+    private void apply(final Day06Instructions instructions, final int fromRow, final int toRow) {
+        for (int i = 0; i < instructions.size(); i++) {
+            doOperation(instructions.command(i), instructions.fromX(i), instructions.fromY(i),
+                    instructions.toX(i), instructions.toY(i), fromRow, toRow);
         }
-        if (split.length != 2)
-            throw new IllegalArgumentException("could not split correctly with " + command);
-        return split;
     }
 
-    private Coordinate getCoordinate(final String coordinationInstruction) {
-        if (!coordinationInstruction.contains(","))
-            throw new IllegalArgumentException("no split parameter in " + coordinationInstruction);
+    private class RowStripe extends RecursiveAction {
+        private final Day06Instructions instructions;
+        private final int fromRow;
+        private final int toRow;
+        private final int stripe;
 
-        var param = ",";
-        final String[] split = splitIntoTwoParts(coordinationInstruction, param);
+        RowStripe(final Day06Instructions instructions, final int fromRow, final int toRow, final int stripe) {
+            this.instructions = instructions;
+            this.fromRow = fromRow;
+            this.toRow = toRow;
+            this.stripe = stripe;
+        }
 
-        var left = Integer.parseInt(split[0]);
-        var right = Integer.parseInt(split[1]);
+        @Override
+        protected void compute() {
+            if (toRow - fromRow <= stripe) {
+                apply(instructions, fromRow, toRow);
+            } else {
+                final int middle = (fromRow + toRow) >>> 1;
+                invokeAll(new RowStripe(instructions, fromRow, middle, stripe),
+                        new RowStripe(instructions, middle, toRow, stripe));
+            }
+        }
+    }
 
-        return new Coordinate(left, right);
+    /**
+     * @return number of rows that can be changed independently of each other by {@link #parseAll(List)} or {@code 0}
+     * if the instructions have to be applied one after the other
+     */
+    protected int getNumberOfRows() {
+        return 0;
     }
 
-    private Command getCommand(final String instruction) {
-        for (Command c : Command.values()) {
-            if (instruction.startsWith(c.text))
-                return c;
+    protected void doOperation(final Command how, final Coordinate start, final Coordinate end) {
+        doOperation(how, start.x(), start.y(), end.x(), end.y(), start.y(), end.y() + 1);
+    }
+
+    /**
+     * Same as {@link #doOperation(Command, Coordinate, Coordinate)} for the rectangle from ({@code fromX}, {@code fromY})
+     * to ({@code toX}, {@code toY}), but only for the rows {@code fromRow} (inclusive) to {@code toRow} (exclusive).
+     */
+    protected void doOperation(final Command how, final int fromX, final int fromY, final int toX, final int toY,
+                               final int fromRow, final int toRow) {
+        final int lastRow = Math.min(toY, toRow - 1);
+        for (int row = Math.max(fromY, fromRow); row <= lastRow; row++) {
+            for (int line = fromX; line <= toX; line++) {
+                change(how, line, row);
+            }
         }
-        throw new IllegalArgumentException("found no command for '" + instruction + "'");
     }
 
+    protected abstract void change(final Command what, final int line, final int row);
+
     public abstract int getNumberOfLights();
 
     protected enum Command {
@@ -70,10 +136,17 @@ abstract class Day06 {
         Command(String textRepresentation) {
             this.text = textRepresentation;
         }
+
+        String getText() {
+            return text;
+        }
     }
 
     protected record Coordinate(int x, int y) {
     }
+
+    protected record Instruction(Command how, Coordinate start, Coordinate end) {
+    }
 }
 
 class Day06WithArray extends Day06 {
@@ -92,6 +165,11 @@ class Day06WithArray extends Day06 {
         };
     }
 
+    @Override
+    protected int getNumberOfRows() {
+        return grid.length;
+    }
+
     @Override
     public int getNumberOfLights() {
         int counter = 0;
@@ -105,6 +183,84 @@ class Day06WithArray extends Day06 {
     }
 }
 
+/**
+ * One bit per light, each row packed into {@code long} words. A whole rectangle is changed with one mask per word
+ * instead of light by light.
+ */
+class Day06WithBitSet extends Day06 {
+    private final long[][] grid;
+    private final int width;
+
+    public Day06WithBitSet(final int width, final int height) {
+        this.width = width;
+        grid = new long[height][(width + 63) >>> 6];
+    }
+
+    @Override
+    protected int getNumberOfRows() {
+        return grid.length;
+    }
+
+    @Override
+    protected void doOperation(final Command how, final int fromX, final int fromY, final int toX, final int toY,
+                               final int fromRow, final int toRow) {
+        if (fromX > toX)
+            return;
+        if (fromX < 0 || toX >= width)
+            throw new ArrayIndexOutOfBoundsException("line out of bounds: " + fromX + " - " + toX);
+
+        final int firstWord = fromX >>> 6;
+        final int lastWord = toX >>> 6;
+        final long firstMask = -1L << (fromX & 63);
+        final long lastMask = -1L >>> (63 - (toX & 63));
+
+        final int lastRow = Math.min(toY, toRow - 1);
+        for (int row = Math.max(fromY, fromRow); row <= lastRow; row++) {
+            final long[] words = grid[row];
+            if (firstWord == lastWord) {
+                change(how, words, firstWord, firstMask & lastMask);
+            } else {
+                change(how, words, firstWord, firstMask);
+                for (int w = firstWord + 1; w < lastWord; w++) {
+                    change(how, words, w, -1L);
+                }
+                change(how, words, lastWord, lastMask);
+            }
+        }
+    }
+
+    private static void change(final Command command, final long[] words, final int index, final long mask) {
+        switch (command) {
+            case ON -> words[index] |= mask;
+            case OFF -> words[index] &= ~mask;
+            case TOGGLE -> words[index] ^= mask;
+        }
+    }
+
+    @Override
+    protected void change(final Command command, final int line, final int row) {
+        change(command, grid[row], line >>> 6, 1L << (line & 63));
+    }
+
+    @Override
+    public int getNumberOfLights() {
+        return Math.toIntExact(countLights());
+    }
+
+    /**
+     * @see #getNumberOfLights()
+     */
+    public long countLights() {
+        long counter = 0;
+        for (final long[] line : grid) {
+            for (final long word : line) {
+                counter += Long.bitCount(word);
+            }
+        }
+        return counter;
+    }
+}
+
 class Day06WithList extends Day06 {
     private final Set<Coordinate> lightsOn = new HashSet<>();
 
@@ -153,6 +309,11 @@ class Day06WithArrayWithBrightness extends Day06 {
         };
     }
 
+    @Override
+    protected int getNumberOfRows() {
+        return grid.length;
+    }
+
     @Override
     public int getNumberOfLights() {
         int counter = 0;
@@ -176,3 +337,120 @@ class Day06WithArrayWithBrightness extends Day06 {
         return sum;
     }
 }
+
+/**
+ * Only remembers the instructions and evaluates them on demand over "elementary rectangles": all x and y coordinates
+ * where any instruction starts or ends split the plane into cells in which every light behaves the same. Memory and
+ * time therefore depend on the number of instructions and not on the size of the grid (which is unbounded).
+ */
+class Day06WithCompression extends Day06 {
+    private final boolean withBrightness;
+    private final List<Instruction> instructions = new ArrayList<>();
+    // result of the last evaluation, null if there are new instructions since then
+    private long[] evaluated = null;
+
+    /**
+     * @param withBrightness {@code true} for the rules of {@link Day06WithArrayWithBrightness}, {@code false} for the
+     *                       on/off rules of {@link Day06WithArray}
+     */
+    public Day06WithCompression(final boolean withBrightness) {
+        this.withBrightness = withBrightness;
+    }
+
+    @Override
+    protected void doOperation(final Command how, final Coordinate start, final Coordinate end) {
+        if (start.x() > end.x() || start.y() > end.y())
+            return;
+        instructions.add(new Instruction(how, start, end));
+        evaluated = null;
+    }
+
+    @Override
+    protected void change(final Command what, final int line, final int row) {
+        var c = new Coordinate(line, row);
+        doOperation(what, c, c);
+    }
+
+    @Override
+    public int getNumberOfLights() {
+        return Math.toIntExact(countLights());
+    }
+
+    /**
+     * @see #getNumberOfLights()
+     */
+    public long countLights() {
+        return evaluate()[0];
+    }
+
+    public long getBrightness() {
+        return evaluate()[1];
+    }
+
+    /**
+     * @return number of lights that are on and total brightness
+     */
+    private long[] evaluate() {
+        if (evaluated != null)
+            return evaluated;
+
+        // edges of the elementary rectangles (end is exclusive, therefore +1)
+        // (as long, so that Integer.MAX_VALUE + 1 does not overflow)
+        final long[] xs = instructions.stream()
+                .flatMapToLong(r -> LongStream.of(r.start().x(), r.end().x() + 1L))
+                .sorted().distinct().toArray();
+        final long[] ys = instructions.stream()
+                .flatMapToLong(r -> LongStream.of(r.start().y(), r.end().y() + 1L))
+                .sorted().distinct().toArray();
+        final int width = Math.max(0, xs.length - 1);
+        final int height = Math.max(0, ys.length - 1);
+        final long size = (long) width * height;
+        if (size > Integer.MAX_VALUE - 8)
+            throw new IllegalStateException("too many elementary rectangles: " + width + " x " + height);
+        final int[] cells = new int[(int) size];
+
+        for (Instruction r : instructions) {
+            final int fromX = Arrays.binarySearch(xs, r.start().x());
+            final int toX = Arrays.binarySearch(xs, r.end().x() + 1L);
+            final int fromY = Arrays.binarySearch(ys, r.start().y());
+            final int toY = Arrays.binarySearch(ys, r.end().y() + 1L);
+            for (int y = fromY; y < toY; y++) {
+                final int offset = y * width; // < size, so no overflow
+                for (int x = offset + fromX; x < offset + toX; x++) {
+                    cells[x] = change(r.how(), cells[x]);
+                }
+            }
+        }
+
+        long lights = 0;
+        long brightness = 0;
+        for (int y = 0; y < height; y++) {
+            final long cellHeight = ys[y + 1] - ys[y];
+            for (int x = 0; x < width; x++) {
+                final int value = cells[y * width + x];
+                if (value > 0) {
+                    final long area = cellHeight * (xs[x + 1] - xs[x]);
+                    lights += area;
+                    brightness += area * value;
+                }
+            }
+        }
+        evaluated = new long[]{lights, brightness};
+        return evaluated;
+    }
+
+    private int change(final Command command, final int currentValue) {
+        if (withBrightness) {
+            return switch (command) {
+                case ON -> currentValue + 1;
+                case OFF -> Math.max(0, currentValue - 1);
+                case TOGGLE -> currentValue + 2;
+            };
+        }
+        return switch (command) {
+            case ON -> 1;
+            case OFF -> 0;
+            case TOGGLE -> 1 - currentValue;
+        };
+    }
+}
@@ -0,0 +1,227 @@
+package com.adventofcode.yr2015;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Parsed instructions of {@link Day06} as struct-of-arrays: one opcode and four coordinates per instruction.
+ *
+ * <p>Every line is scanned exactly once, character by character, and written straight into the primitive arrays
+ * (no {@code split}, no regex, no temporary strings or records).
+ */
+class Day06Instructions {
+    /**
+     * maximum size of one memory mapped region of the input file
+     */
+    private static final int REGION_SIZE = 1 << 30;
+    private static final Day06.Command[] COMMANDS = Day06.Command.values();
+
+    private byte[] commands;
+    private int[] fromX;
+    private int[] fromY;
+    private int[] toX;
+    private int[] toY;
+    private int size = 0;
+
+    // parsing state
+    private ByteBuffer buffer;
+    private int lineStart;
+    private int cursor;
+    private int lineEnd;
+
+    Day06Instructions(final int capacity) {
+        final int initial = Math.max(1, capacity);
+        commands = new byte[initial];
+        fromX = new int[initial];
+        fromY = new int[initial];
+        toX = new int[initial];
+        toY = new int[initial];
+    }
+
+    public static Day06Instructions of(final List<String> lines) {
+        final var result = new Day06Instructions(lines.size());
+        for (String line : lines) {
+            result.add(line);
+        }
+        return result;
+    }
+
+    /**
+     * Parse a whole file of instructions (one per line) via memory mapping.
+     */
+    public static Day06Instructions read(final Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final long fileSize = channel.size();
+            // roughly 30 bytes per line
+            final var result = new Day06Instructions((int) Math.min(fileSize / 30 + 1, 1 << 20));
+            long position = 0;
+            while (position < fileSize) {
+                final long length = Math.min(REGION_SIZE, fileSize - position);
+                final ByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                final boolean isLastRegion = position + length == fileSize;
+                final int consumed = result.addLines(region, (int) length, isLastRegion);
+                if (consumed == 0)
+                    throw new IllegalArgumentException("line too long at byte " + position);
+                position += consumed;
+            }
+            return result;
+        }
+    }
+
+    /**
+     * @return number of bytes consumed; without the last region only complete lines (ending with a line break) are used
+     */
+    private int addLines(final ByteBuffer region, final int length, final boolean isLastRegion) {
+        int start = 0;
+        for (int i = 0; i < length; i++) {
+            if (region.get(i) == '\n') {
+                addLine(region, start, i);
+                start = i + 1;
+            }
+        }
+        if (isLastRegion && start < length) {
+            addLine(region, start, length);
+            start = length;
+        }
+        return start;
+    }
+
+    public void add(final String line) {
+        final byte[] bytes = line.getBytes(StandardCharsets.ISO_8859_1);
+        addLine(ByteBuffer.wrap(bytes), 0, bytes.length);
+    }
+
+    private void addLine(final ByteBuffer source, final int start, final int end) {
+        buffer = source;
+        lineStart = start;
+        cursor = start;
+        lineEnd = end;
+        // ignore trailing white space (e.g. "\r")
+        while (lineEnd > cursor && buffer.get(lineEnd - 1) <= ' ')
+            lineEnd--;
+        if (cursor == lineEnd)
+            throw error("empty line");
+
+        final Day06.Command command = readCommand();
+        final int x1 = readNumber();
+        expect(",");
+        final int y1 = readNumber();
+        expect("through");
+        final int x2 = readNumber();
+        expect(",");
+        final int y2 = readNumber();
+        if (cursor != lineEnd)
+            throw error("unexpected rest");
+
+        ensureCapacity();
+        commands[size] = (byte) command.ordinal();
+        fromX[size] = x1;
+        fromY[size] = y1;
+        toX[size] = x2;
+        toY[size] = y2;
+        size++;
+        buffer = null;
+    }
+
+    private Day06.Command readCommand() {
+        // "toggle", "turn on" or "turn off"
+        final Day06.Command command;
+        if (peek(1) == 'o') {
+            command = Day06.Command.TOGGLE;
+        } else if (peek(6) == 'n') {
+            command = Day06.Command.ON;
+        } else {
+            command = Day06.Command.OFF;
+        }
+        final String text = command.getText();
+        for (int i = 0; i < text.length(); i++) {
+            if (peek(i) != text.charAt(i))
+                throw error("found no command");
+        }
+        cursor += text.length();
+        return command;
+    }
+
+    private int peek(final int offset) {
+        final int i = cursor + offset;
+        return i < lineEnd ? buffer.get(i) : -1;
+    }
+
+    private void skipSpaces() {
+        while (cursor < lineEnd && buffer.get(cursor) == ' ')
+            cursor++;
+    }
+
+    private void expect(final String token) {
+        skipSpaces();
+        for (int i = 0; i < token.length(); i++) {
+            if (peek(i) != token.charAt(i))
+                throw error("expected '" + token + "'");
+        }
+        cursor += token.length();
+    }
+
+    private int readNumber() {
+        skipSpaces();
+        final int start = cursor;
+        int value = 0;
+        while (cursor < lineEnd) {
+            final int digit = buffer.get(cursor) - '0';
+            if (digit < 0 || digit > 9)
+                break;
+            value = Math.addExact(Math.multiplyExact(value, 10), digit);
+            cursor++;
+        }
+        if (cursor == start)
+            throw error("expected a number");
+        return value;
+    }
+
+    private IllegalArgumentException error(final String message) {
+        final byte[] line = new byte[lineEnd - lineStart];
+        buffer.get(lineStart, line);
+        return new IllegalArgumentException(message + " at position " + (cursor - lineStart) + " in '"
+                + new String(line, StandardCharsets.ISO_8859_1) + "'");
+    }
+
+    private void ensureCapacity() {
+        if (size < commands.length)
+            return;
+        final int newCapacity = commands.length + (commands.length >> 1) + 1;
+        commands = Arrays.copyOf(commands, newCapacity);
+        fromX = Arrays.copyOf(fromX, newCapacity);
+        fromY = Arrays.copyOf(fromY, newCapacity);
+        toX = Arrays.copyOf(toX, newCapacity);
+        toY = Arrays.copyOf(toY, newCapacity);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public Day06.Command command(final int index) {
+        return COMMANDS[commands[index]];
+    }
+
+    public int fromX(final int index) {
+        return fromX[index];
+    }
+
+    public int fromY(final int index) {
+        return fromY[index];
+    }
+
+    public int toX(final int index) {
+        return toX[index];
+    }
+
+    public int toY(final int index) {
+        return toY[index];
+    }
+}
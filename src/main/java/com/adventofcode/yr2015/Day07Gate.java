@@ -0,0 +1,65 @@
+package com.adventofcode.yr2015;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * One parsed line of the circuit of {@link Day07}: the operation, its operands (a wire name or a literal number) and
+ * the wire that receives the signal.
+ *
+ * @param right {@code null} for {@link Operation#ASSIGN} and {@link Operation#NOT}
+ */
+record Day07Gate(Operation operation, String left, String right, String output) {
+    /**
+     * All kinds of gates in one pattern (compiled only once), so every line is classified in a single match.
+     */
+    private static final Pattern GATE = Pattern.compile(
+            "^(?:(?<value>\\w+)|NOT (?<notIn>\\w+)|(?<left>\\w+) (?<op>AND|OR|LSHIFT|RSHIFT) (?<right>\\w+)) -> (?<wireOut>\\w+)$");
+
+    enum Operation {
+        ASSIGN, NOT, AND, OR, LSHIFT, RSHIFT
+    }
+
+    Day07Gate {
+        Objects.requireNonNull(operation);
+        Objects.requireNonNull(left);
+        Objects.requireNonNull(output);
+    }
+
+    /**
+     * @return the gate or nothing if the command is not understood
+     */
+    public static Optional<Day07Gate> parse(final String command) {
+        final Matcher m = GATE.matcher(command.trim());
+        if (!m.matches())
+            return Optional.empty();
+
+        final String out = m.group("wireOut");
+        if (m.group("value") != null)
+            return Optional.of(new Day07Gate(Operation.ASSIGN, m.group("value"), null, out));
+        if (m.group("notIn") != null)
+            return Optional.of(new Day07Gate(Operation.NOT, m.group("notIn"), null, out));
+        final Operation op = Operation.valueOf(m.group("op"));
+        return Optional.of(new Day07Gate(op, m.group("left"), m.group("right"), out));
+    }
+
+    public boolean hasRight() {
+        return right != null;
+    }
+
+    /**
+     * @return {@code true} if the operand is a number and not the name of a wire
+     */
+    public static boolean isLiteral(final String operand) {
+        if (operand.isEmpty())
+            return false;
+        for (int i = 0; i < operand.length(); i++) {
+            final char c = operand.charAt(i);
+            if (c < '0' || c > '9')
+                return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,270 @@
+package com.adventofcode.yr2015;
+
+import com.adventofcode.yr2015.Day07Gate.Operation;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Same circuit as {@link Day07}, but every gate is parsed only once into a graph of wires (indexed by a numeric wire
+ * ID) and the signals are evaluated lazily with memoization. A wire is computed at most once, so the evaluation is
+ * linear in the number of gates and needs no retries of commands whose inputs are not available yet.
+ *
+ * <p>The circuit can be changed after it was evaluated (see {@link #override(String, int)} or simply
+ * {@link #parse(String)} another gate for an existing wire). Only the signals downstream of the changed wires are
+ * forgotten and computed again on the next request, everything else stays as it is.
+ */
+public class Day07WithGraph {
+    private static final int MASK = 0xFFFF;
+    private static final int UNKNOWN = -1;
+
+    private final Map<String, Integer> ids = new HashMap<>();
+    private int size = 0;
+    /**
+     * gate providing the signal of the wire, {@code null} if there is none (yet)
+     */
+    private Operation[] operations = new Operation[16];
+    /**
+     * operands of the gate: a wire ID (&gt;= 0) or a literal value {@code v} stored as {@code ~v} (&lt; 0)
+     */
+    private int[] left = new int[16];
+    private int[] right = new int[16];
+    private int[] signals = new int[16];
+    /**
+     * reverse edges: all wires whose gate uses the wire as input
+     */
+    private int[][] dependents = new int[16][];
+    private int[] dependentCount = new int[16];
+
+    // evaluation stack, kept to avoid allocations per query
+    private int[] stack = new int[16];
+    private boolean[] onStack = new boolean[16];
+
+    public void parse(final String... input) {
+        this.parse(Arrays.stream(input).toList());
+    }
+
+    public void parse(final List<String> input) {
+        for (String command : input) {
+            this.parse(command);
+        }
+    }
+
+    public void parse(final String command) {
+        Day07Gate.parse(command).ifPresentOrElse(
+                this::define,
+                () -> System.err.println("What should I do with: " + command));
+    }
+
+    public void define(final Day07Gate gate) {
+        final int b = gate.hasRight() ? getOperand(gate.right()) : 0;
+        define(getId(gate.output()), gate.operation(), getOperand(gate.left()), b);
+    }
+
+    /**
+     * Override the signal of a wire (the gate providing it is replaced by the fixed value).
+     */
+    public void override(final String wire, final int signal) {
+        override(Map.of(wire, signal));
+    }
+
+    /**
+     * Override the signals of several wires at once.
+     *
+     * @see #override(String, int)
+     */
+    public void override(final Map<String, Integer> signalPerWire) {
+        for (var entry : signalPerWire.entrySet()) {
+            final int signal = entry.getValue();
+            if (signal < 0 || signal > MASK) {
+                throw new IllegalArgumentException("only 16-bit signals are allowed, but was: " + signal);
+            }
+            define(getId(entry.getKey()), Operation.ASSIGN, ~signal, 0);
+        }
+    }
+
+    private void define(final int wire, final Operation operation, final int a, final int b) {
+        if (operations[wire] != null) {
+            removeDependent(left[wire], wire);
+            if (usesRight(operations[wire]))
+                removeDependent(right[wire], wire);
+        }
+        operations[wire] = operation;
+        left[wire] = a;
+        right[wire] = b;
+        addDependent(a, wire);
+        if (usesRight(operation))
+            addDependent(b, wire);
+        invalidate(wire);
+    }
+
+    private void addDependent(final int input, final int wire) {
+        if (input < 0)
+            return; // literal
+        if (dependents[input] == null) {
+            dependents[input] = new int[2];
+        } else if (dependentCount[input] == dependents[input].length) {
+            dependents[input] = Arrays.copyOf(dependents[input], 2 * dependentCount[input]);
+        }
+        dependents[input][dependentCount[input]++] = wire;
+    }
+
+    private void removeDependent(final int input, final int wire) {
+        if (input < 0)
+            return; // literal
+        final int[] list = dependents[input];
+        for (int i = 0; i < dependentCount[input]; i++) {
+            if (list[i] == wire) {
+                list[i] = list[--dependentCount[input]];
+                return;
+            }
+        }
+    }
+
+    /**
+     * Forget the signal of the wire and of everything downstream of it.
+     *
+     * <p>A signal is only known if all its inputs are known, so the walk can stop at every wire without signal.
+     */
+    private void invalidate(final int wire) {
+        if (signals[wire] == UNKNOWN)
+            return;
+        int top = 0;
+        stack[top++] = wire;
+        signals[wire] = UNKNOWN;
+        while (top > 0) {
+            final int current = stack[--top];
+            for (int i = 0; i < dependentCount[current]; i++) {
+                final int next = dependents[current][i];
+                if (signals[next] != UNKNOWN) {
+                    signals[next] = UNKNOWN;
+                    if (top == stack.length)
+                        stack = Arrays.copyOf(stack, 2 * top);
+                    stack[top++] = next;
+                }
+            }
+        }
+    }
+
+    private int getOperand(final String token) {
+        if (Day07Gate.isLiteral(token))
+            return ~parseSignal(token);
+        return getId(token);
+    }
+
+    /**
+     * @param literal only digits
+     */
+    private static int parseSignal(final String literal) {
+        int value = 0;
+        for (int i = 0; i < literal.length(); i++) {
+            value = 10 * value + (literal.charAt(i) - '0');
+            if (value > MASK)
+                throw new IllegalArgumentException("only 16-bit signals are allowed, but was: " + literal);
+        }
+        return value;
+    }
+
+    private int getId(final String wire) {
+        final Integer known = ids.get(wire);
+        if (known != null)
+            return known;
+        if (size == operations.length) {
+            final int newCapacity = 2 * size;
+            operations = Arrays.copyOf(operations, newCapacity);
+            left = Arrays.copyOf(left, newCapacity);
+            right = Arrays.copyOf(right, newCapacity);
+            signals = Arrays.copyOf(signals, newCapacity);
+            onStack = Arrays.copyOf(onStack, newCapacity);
+            dependents = Arrays.copyOf(dependents, newCapacity);
+            dependentCount = Arrays.copyOf(dependentCount, newCapacity);
+        }
+        signals[size] = UNKNOWN;
+        ids.put(wire, size);
+        return size++;
+    }
+
+    public Optional<Integer> get(final String wire) {
+        final Integer id = ids.get(wire);
+        if (id == null || !evaluate(id))
+            return Optional.empty();
+        return Optional.of(signals[id]);
+    }
+
+    /**
+     * @return {@code true} if the signal of the wire is currently computed (and not forgotten because of a change)
+     */
+    boolean isEvaluated(final String wire) {
+        final Integer id = ids.get(wire);
+        return id != null && signals[id] != UNKNOWN;
+    }
+
+    /**
+     * Compute the signal of the wire and all wires it depends on (depth first with an explicit stack, so that long
+     * chains of gates do not overflow the call stack).
+     *
+     * @return {@code false} if the signal cannot be computed because an input is missing or part of a loop
+     */
+    private boolean evaluate(final int wire) {
+        if (signals[wire] != UNKNOWN)
+            return true;
+
+        int top = 0;
+        stack[top++] = wire;
+        onStack[wire] = true;
+
+        while (top > 0) {
+            final int current = stack[top - 1];
+            final Operation op = operations[current];
+            if (op == null)
+                return abort(top); // no gate provides a signal to this wire
+
+            final int a = left[current];
+            final int b = usesRight(op) ? right[current] : ~0;
+            final int next = a >= 0 && signals[a] == UNKNOWN ? a : (b >= 0 && signals[b] == UNKNOWN ? b : UNKNOWN);
+            if (next != UNKNOWN) {
+                if (onStack[next])
+                    return abort(top); // loop
+                if (top == stack.length)
+                    stack = Arrays.copyOf(stack, 2 * top);
+                stack[top++] = next;
+                onStack[next] = true;
+                continue;
+            }
+
+            signals[current] = compute(op, valueOf(a), valueOf(b));
+            onStack[current] = false;
+            top--;
+        }
+        return true;
+    }
+
+    private boolean abort(final int top) {
+        for (int i = 0; i < top; i++) {
+            onStack[stack[i]] = false;
+        }
+        return false;
+    }
+
+    private static boolean usesRight(final Operation op) {
+        return op != Operation.ASSIGN && op != Operation.NOT;
+    }
+
+    private int valueOf(final int operand) {
+        return operand >= 0 ? signals[operand] : ~operand;
+    }
+
+    private static int compute(final Operation op, final int a, final int b) {
+        return switch (op) {
+            case ASSIGN -> a;
+            case NOT -> ~a & MASK;
+            case AND -> a & b;
+            case OR -> a | b;
+            case LSHIFT -> (a << b) & MASK;
+            case RSHIFT -> a >>> b;
+        };
+    }
+}
@@ -1,5 +1,7 @@
 package com.adventofcode.yr2015;
 
+import java.nio.ByteBuffer;
+
 public class Day08 {
     public static int getCodeLength(final String input) {
         return input.length();
@@ -9,33 +11,132 @@ public class Day08 {
         // Santa's list is a file that contains many double-quoted string literals, one on each line. The only escape
         // sequences used are \\ (which represents a single backslash), \" (which represents a lone double-quote character),
         // and \x plus two hexadecimal characters (which represents a single character with that ASCII code).
-        String result = input;
-        // Anführungszeichen entfernen
-        if (result.startsWith("\""))
-            result = result.substring(1);
-        if (result.endsWith("\""))
-            result = result.substring(0, result.length() - 1);
-        if (result.contains("\\\""))
-            result = result.replace("\\\"", "\"");
-        if (result.contains("\\\\"))
-            result = result.replace("\\\\", "|");
-        while (result.contains("\\x")) {
-            // \x plus two hexadecimal characters (which represents a single character with that ASCII code)
-            int index = result.indexOf("\\x");
-            String hexString = result.substring(index + 2, index + 4); // +2 to skip "\x"
-            char value = (char) Integer.parseInt(hexString, 16);
-            result = result.replace("\\x" + hexString, String.valueOf(value));
-        }
-        System.out.println("INPUT: " + input + " --> RESULT: " + result + " --> " + result.length());
-        return result.length();
+        return Math.toIntExact(analyze(input).memory());
     }
 
     public static String encode(final String input) {
-        String result = input;
-        if (result.contains("\\"))
-            result = result.replace("\\", "\\\\");
-        if (result.contains("\""))
-            result = result.replace("\"", "\\\"");
-        return "\"" + result + "\"";
+        final StringBuilder result = new StringBuilder(input.length() + 8);
+        result.append('"');
+        for (int i = 0; i < input.length(); i++) {
+            final char c = input.charAt(i);
+            if (c == '\\' || c == '"')
+                result.append('\\');
+            result.append(c);
+        }
+        return result.append('"').toString();
+    }
+
+    /**
+     * All three lengths of one or more string literals (separated by white space) in a single scan.
+     */
+    public static Literals analyze(final CharSequence input) {
+        final var scanner = new LiteralScanner();
+        for (int i = 0; i < input.length(); i++) {
+            scanner.step(input.charAt(i));
+        }
+        return scanner.finish();
+    }
+
+    /**
+     * @see #analyze(ByteBuffer)
+     */
+    public static Literals analyze(final byte[] input) {
+        return analyze(ByteBuffer.wrap(input));
+    }
+
+    /**
+     * Reads the remaining bytes of the buffer (e.g. a memory mapped file) without changing its position, so the whole
+     * file can be analyzed without creating any strings.
+     *
+     * @see #analyze(CharSequence)
+     */
+    public static Literals analyze(final ByteBuffer input) {
+        final var scanner = new LiteralScanner();
+        for (int i = input.position(); i < input.limit(); i++) {
+            scanner.step(input.get(i));
+        }
+        return scanner.finish();
     }
+
+    private static class LiteralScanner {
+        private static final int OUTSIDE = 0;
+        private static final int INSIDE = 1;
+        private static final int ESCAPE = 2;
+        private static final int FIRST_HEX_DIGIT = 3;
+        private static final int SECOND_HEX_DIGIT = 4;
+
+        private int state = OUTSIDE;
+        private long position = 0;
+        private long code = 0;
+        private long memory = 0;
+        private long encoded = 0;
+
+        void step(final int c) {
+            switch (state) {
+                case OUTSIDE -> {
+                    if (c == ' ' || c == '\t' || c == '\r' || c == '\n') {
+                        position++;
+                        return; // white space between the literals does not count
+                    }
+                    if (c != '"')
+                        throw unexpected(c);
+                    // the new surrounding quotes and the escaped opening quote
+                    encoded += 2;
+                    state = INSIDE;
+                }
+                case INSIDE -> {
+                    if (c == '\\')
+                        state = ESCAPE;
+                    else if (c == '"')
+                        state = OUTSIDE;
+                    else
+                        memory++;
+                }
+                case ESCAPE -> {
+                    if (c == '\\' || c == '"') {
+                        memory++;
+                        state = INSIDE;
+                    } else if (c == 'x') {
+                        state = FIRST_HEX_DIGIT;
+                    } else {
+                        throw unexpected(c);
+                    }
+                }
+                case FIRST_HEX_DIGIT, SECOND_HEX_DIGIT -> {
+                    if (Character.digit(c, 16) < 0)
+                        throw unexpected(c);
+                    if (state == SECOND_HEX_DIGIT) {
+                        memory++;
+                        state = INSIDE;
+                    } else {
+                        state = SECOND_HEX_DIGIT;
+                    }
+                }
+                default -> throw new IllegalStateException("unknown state " + state);
+            }
+            code++;
+            encoded++;
+            if (c == '\\' || c == '"')
+                encoded++;
+            position++;
+        }
+
+        private IllegalArgumentException unexpected(final int c) {
+            return new IllegalArgumentException("unexpected character '" + (char) c + "' at position " + position);
+        }
+
+        Literals finish() {
+            if (state != OUTSIDE)
+                throw new IllegalArgumentException("string literal is not closed at the end (position " + position + ")");
+            return new Literals(code, memory, encoded);
+        }
+    }
+}
+
+/**
+ * @param code    number of characters of the string literals in the code (including the quotes)
+ * @param memory  number of characters of the values in memory
+ * @param encoded number of characters if the string literals are encoded again (see {@link Day08#encode(String)})
+ */
+record Literals(long code, long memory, long encoded) {
 }
@@ -5,10 +5,25 @@ import org.github.ruderphilipp.CompleteEnumerationGenerator;
 import java.util.*;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 public class Day09 {
     public static final Distance DUMMY_DISTANCE = new Distance("NON EXISTANT", "NON EXISTANT", 0);
+    /**
+     * marks a pair of locations without a known distance (not traversable)
+     */
+    protected static final int NO_DISTANCE = -1;
+    /**
+     * the table of {@link #findRoute(boolean)} grows with {@code 2^n * n} (80 MiB for 20 locations), more
+     * locations are searched by {@link Day09WithBranchAndBound} instead
+     */
+    private static final int MAX_LOCATIONS_FOR_TABLE = 20;
     private final Set<Distance> knownDistances = new HashSet<>();
+    /**
+     * all locations in alphabetical order; their index is used in {@link #distances}
+     */
+    protected final List<String> locations;
+    protected final int[][] distances;
 
     protected Day09(final String... distances) {
         this(Arrays.stream(distances).toList());
@@ -19,6 +34,26 @@ public class Day09 {
             Distance a = parse(distance);
             knownDistances.add(a);
         }
+        locations = getSortedListOfUniqueLocations();
+        this.distances = new int[locations.size()][locations.size()];
+        for (int[] row : this.distances) {
+            Arrays.fill(row, NO_DISTANCE);
+        }
+        for (var d : knownDistances) {
+            final int a = Collections.binarySearch(locations, d.startLocation());
+            final int b = Collections.binarySearch(locations, d.endLocation());
+            this.distances[a][b] = d.distance();
+            this.distances[b][a] = d.distance();
+        }
+    }
+
+    /**
+     * Same locations and distances as the other one (they are never changed, so they are shared).
+     */
+    protected Day09(final Day09 other) {
+        knownDistances.addAll(other.knownDistances);
+        locations = other.locations;
+        distances = other.distances;
     }
 
     private Distance parse(final String input) {
@@ -32,34 +67,26 @@ public class Day09 {
     }
 
     protected Set<Route> getRoutes() {
-        Set<Route> result = new HashSet<>();
-
-        List<String> locList = getSortedListOfUniqueLocations();
-        List<int[]> enumerations = CompleteEnumerationGenerator.getEnumerations(locList.size());
-        for (int[] option : enumerations) {
-            List<String> locations = new LinkedList<>();
-            for (int idx : option) {
-                locations.add(locList.get(idx));
-            }
-            int total_distance = getTotalDistance(locations);
-            result.add(new Route(locations, total_distance));
-        }
-        return result;
+        return CompleteEnumerationGenerator.streamPermutations(locations.size(), true)
+                .map(option -> {
+                    List<String> route = new ArrayList<>(option.length);
+                    for (int idx : option) {
+                        route.add(locations.get(idx));
+                    }
+                    return new Route(route, getTotalDistance(option));
+                })
+                .collect(Collectors.toSet());
     }
 
-    private int getTotalDistance(List<String> locations) {
+    private int getTotalDistance(final int[] order) {
         int total_distance = 0;
-        for (int i = 0; i < locations.size() - 1; i++) {
-            String from = locations.get(i);
-            String to = locations.get(i + 1);
-            var x = knownDistances.stream()
-                    .filter(d -> d.startLocation().equals(from) || d.endLocation().equals(from))
-                    .filter(d -> d.startLocation().equals(to) || d.endLocation().equals(to))
-                    .findAny();
-            if (x.isEmpty()) {
-                System.err.println("could not find distance from " + from + " to " + to);
+        for (int i = 0; i < order.length - 1; i++) {
+            int distance = distances[order[i]][order[i + 1]];
+            if (distance == NO_DISTANCE) {
+                System.err.println("could not find distance from " + locations.get(order[i]) + " to " + locations.get(order[i + 1]));
+                distance = DUMMY_DISTANCE.distance();
             }
-            total_distance += x.orElse(DUMMY_DISTANCE).distance();
+            total_distance += distance;
         }
         return total_distance;
     }
@@ -74,22 +101,121 @@ public class Day09 {
     }
 
     public Optional<Route> getShortestRoute() {
-        return this.getRoutes().stream().min((x, y) -> Integer.compare(x.total_distance(), y.total_distance()));
+        return findRoute(false);
     }
 
     public Optional<Route> getLongestRoute() {
-        return this.getRoutes().stream().max((x, y) -> Integer.compare(x.total_distance(), y.total_distance()));
+        return findRoute(true);
     }
-}
 
-record Distance(String startLocation, String endLocation, int distance) {
-}
+    /**
+     * Held-Karp: dynamic programming over all subsets of locations instead of trying all permutations. For every set
+     * of visited locations and every location in it, only the best distance of a route through exactly these locations
+     * that ends there is kept, so it needs {@code O(2^n * n^2)} time instead of {@code O(n!)}. The table does not fit
+     * into memory for more than 20 locations, so these are searched with branch and bound (which can take minutes for
+     * 25 locations).
+     *
+     * <p>Of several routes with the same distance, the one with the alphabetically smallest locations (compared one
+     * after the other) is returned, just like {@link Day09WithBranchAndBound} does.
+     *
+     * @return nothing if there is no route that visits all locations (because some distances are missing)
+     */
+    private Optional<Route> findRoute(final boolean longest) {
+        final int n = locations.size();
+        if (n == 0)
+            return Optional.empty();
+        if (n > MAX_LOCATIONS_FOR_TABLE) {
+            final var search = new Day09WithBranchAndBound(this);
+            return longest ? search.getLongestRoute() : search.getShortestRoute();
+        }
 
-record Route(List<String> locations, int total_distance) {
-    @Override
-    public String toString() {
-        return "Route: " + total_distance + " = " + String.join(" -> ", locations);
+        requireRoutesFitIntoInt();
+        final int sets = 1 << n;
+        // best distance of a route through all locations of the set that ends at the location (read backwards, it is
+        // also the best one that starts there)
+        final int[] best = new int[sets * n];
+        Arrays.fill(best, NO_DISTANCE);
+        for (int start = 0; start < n; start++) {
+            best[(1 << start) * n + start] = 0;
+        }
+
+        for (int set = 1; set < sets; set++) {
+            for (int last = 0; last < n; last++) {
+                final int current = best[set * n + last];
+                if (current == NO_DISTANCE)
+                    continue;
+                for (int next = 0; next < n; next++) {
+                    if ((set & (1 << next)) != 0 || distances[last][next] == NO_DISTANCE)
+                        continue;
+                    final int index = (set | (1 << next)) * n + next;
+                    final int candidate = current + distances[last][next];
+                    if (best[index] == NO_DISTANCE || (longest ? candidate > best[index] : candidate < best[index]))
+                        best[index] = candidate;
+                }
+            }
+        }
+
+        final int all = sets - 1;
+        int start = -1;
+        for (int first = 0; first < n; first++) {
+            final int candidate = best[all * n + first];
+            if (candidate != NO_DISTANCE && (start < 0 || (longest ? candidate > best[all * n + start] : candidate < best[all * n + start])))
+                start = first;
+        }
+        if (start < 0)
+            return Optional.empty();
+
+        // walk forward from the smallest start, always to the smallest location that still allows the best distance
+        final int[] order = new int[n];
+        order[0] = start;
+        int set = all;
+        for (int i = 1; i < n; i++) {
+            final int location = order[i - 1];
+            final int rest = best[set * n + location];
+            set &= ~(1 << location);
+            for (int next = 0; next < n; next++) {
+                if ((set & (1 << next)) != 0 && distances[location][next] != NO_DISTANCE
+                        && best[set * n + next] != NO_DISTANCE && best[set * n + next] + distances[location][next] == rest) {
+                    order[i] = next;
+                    break;
+                }
+            }
+        }
+        return Optional.of(toRoute(order, best[all * n + start]));
+    }
+
+    /**
+     * @return largest distance plus one, so that a route of all locations with this distance between every two of them
+     * is still smaller than {@link Integer#MAX_VALUE}
+     * @throws UnsupportedOperationException if the distances are too large for that
+     */
+    protected long requireRoutesFitIntoInt() {
+        long bound = 0;
+        for (int[] row : distances) {
+            for (int d : row) {
+                bound = Math.max(bound, d + 1L);
+            }
+        }
+        final int n = locations.size();
+        if ((n - 1) * bound >= Integer.MAX_VALUE)
+            throw new UnsupportedOperationException("distances too large for " + n + " locations: " + (bound - 1));
+        return bound;
     }
-}
 
+    /**
+     * @param order indices of the locations; of a route and its reverse, the one that starts with the alphabetically
+     *              smaller location is returned
+     */
+    protected Route toRoute(final int[] order, final int totalDistance) {
+        final int n = order.length;
+        final boolean reverse = order[0] > order[n - 1];
+        final List<String> route = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            route.add(locations.get(order[reverse ? n - 1 - i : i]));
+        }
+        return new Route(route, totalDistance);
+    }
+}
 
+record Distance(String startLocation, String endLocation, int distance) {
+}
@@ -0,0 +1,324 @@
+package com.adventofcode.yr2015;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+/**
+ * Same routes as {@link Day09}, but found with a depth-first branch and bound search instead of Held-Karp, so that it
+ * needs only memory linear in the number of locations and also works for more of them (up to 64).
+ *
+ * <p>A partial route is only followed further if a lower bound for the rest of it can still beat the best complete
+ * route found so far. The rest has to connect the current end with all unvisited locations, so it costs at least as
+ * much as a minimum spanning tree of these locations and at least the cheapest edge into every unvisited location.
+ *
+ * <p>The longest route is searched as the shortest one with the costs {@code M - distance} (with {@code M} larger than
+ * every distance): every route has exactly {@code n - 1} edges, so the order of the routes is simply reversed and the
+ * same bounds work as upper bounds for the longest route.
+ *
+ * <p>The first levels of the search tree are split into tasks of a {@link ForkJoinPool}, all of them share the best
+ * route found so far. Of several routes with the same distance, the one with the alphabetically smallest locations
+ * (compared one after the other) is kept, so the result does not depend on the order in which the tasks run and is the
+ * same as the one of {@link Day09}.
+ */
+public class Day09WithBranchAndBound extends Day09 {
+    private static final int MAX_LOCATIONS = Long.SIZE;
+    /**
+     * partial routes with fewer locations are split into one task per next location
+     */
+    private static final int SPLIT_DEPTH = 3;
+    private static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    private SearchStatistics statistics = null;
+
+    protected Day09WithBranchAndBound(final String... distances) {
+        super(distances);
+    }
+
+    public Day09WithBranchAndBound(final List<String> distances) {
+        super(distances);
+    }
+
+    Day09WithBranchAndBound(final Day09 other) {
+        super(other);
+    }
+
+    @Override
+    public Optional<Route> getShortestRoute() {
+        return search(false);
+    }
+
+    @Override
+    public Optional<Route> getLongestRoute() {
+        return search(true);
+    }
+
+    /**
+     * @return numbers of the last search, nothing if there was none yet
+     */
+    public Optional<SearchStatistics> getStatistics() {
+        return Optional.ofNullable(statistics);
+    }
+
+    private Optional<Route> search(final boolean longest) {
+        final int n = locations.size();
+        if (n == 0)
+            return Optional.empty();
+        if (n > MAX_LOCATIONS)
+            throw new UnsupportedOperationException("too many locations: " + n);
+
+        // M of the costs for the longest route; every route (with either costs) stays below UNREACHABLE
+        final long offset = requireRoutesFitIntoInt();
+        final Search search = new Search(toCosts(longest ? (int) offset : 0));
+        ForkJoinPool.commonPool().invoke(search.start());
+        statistics = search.getStatistics();
+
+        final Best best = search.best;
+        if (best.order() == null)
+            return Optional.empty();
+        final long distance = longest ? (n - 1) * offset - best.cost() : best.cost();
+        return Optional.of(toRoute(best.order(), (int) distance));
+    }
+
+    /**
+     * @param offset {@code 0} for the shortest route, otherwise {@code M}
+     */
+    private int[][] toCosts(final int offset) {
+        final int n = locations.size();
+        final int[][] costs = new int[n][n];
+        for (int a = 0; a < n; a++) {
+            for (int b = 0; b < n; b++) {
+                final int d = distances[a][b];
+                if (a == b || d == NO_DISTANCE)
+                    costs[a][b] = UNREACHABLE;
+                else
+                    costs[a][b] = offset == 0 ? d : offset - d;
+            }
+        }
+        return costs;
+    }
+
+    /**
+     * @param nodes                explored partial routes
+     * @param nanos                duration of the whole search
+     * @param nanosToFirstSolution duration until the first complete route was found ({@code -1} if there is none)
+     */
+    public record SearchStatistics(long nodes, long nanos, long nanosToFirstSolution) {
+        public double nodesPerSecond() {
+            return nanos == 0 ? 0 : nodes * 1e9 / nanos;
+        }
+    }
+
+    /**
+     * @param order {@code null} if there is no route yet
+     */
+    private record Best(int cost, int[] order) {
+    }
+
+    /**
+     * State of one search, shared by all of its tasks.
+     */
+    private static class Search {
+        private final int[][] costs;
+        private final int n;
+        /**
+         * the next locations of every location, cheapest first (so that good routes are found early)
+         */
+        private final int[][] neighbors;
+        private final long startNanos = System.nanoTime();
+        private final LongAdder nodes = new LongAdder();
+        /**
+         * never changed, only replaced as a whole (so it can be read without locking)
+         */
+        private volatile Best best = new Best(UNREACHABLE, null);
+        private long firstSolutionNanos = -1;
+
+        Search(final int[][] costs) {
+            this.costs = costs;
+            this.n = costs.length;
+            this.neighbors = new int[n][];
+            for (int a = 0; a < n; a++) {
+                final int from = a;
+                neighbors[a] = IntStream.range(0, n)
+                        .filter(b -> costs[from][b] != UNREACHABLE)
+                        .boxed()
+                        .sorted((x, y) -> Integer.compare(costs[from][x], costs[from][y]))
+                        .mapToInt(Integer::intValue)
+                        .toArray();
+            }
+        }
+
+        RecursiveAction start() {
+            return new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    if (n == 1) {
+                        offer(new int[]{0}, 0);
+                        return;
+                    }
+                    invokeAll(IntStream.range(0, n)
+                            .mapToObj(first -> {
+                                final int[] order = new int[n];
+                                order[0] = first;
+                                return new Branch(Search.this, order, 1, 1L << first, 0);
+                            })
+                            .toList());
+                }
+            };
+        }
+
+        synchronized void offer(final int[] order, final int cost) {
+            final Best current = best;
+            if (current.order() != null
+                    && (cost > current.cost() || (cost == current.cost() && Arrays.compare(order, current.order()) >= 0)))
+                return;
+            best = new Best(cost, order.clone());
+            if (firstSolutionNanos < 0)
+                firstSolutionNanos = System.nanoTime() - startNanos;
+        }
+
+        /**
+         * @param cost lower bound of the cost of all routes that start with the first locations of the order
+         * @return {@code false} if none of these routes can replace the best one: they all cost more, or as much but
+         * their locations are greater
+         */
+        boolean canBeat(final int[] order, final int depth, final long cost) {
+            final Best current = best;
+            if (current.order() == null || cost < current.cost())
+                return true;
+            return cost == current.cost() && Arrays.compare(order, 0, depth, current.order(), 0, depth) <= 0;
+        }
+
+        synchronized SearchStatistics getStatistics() {
+            return new SearchStatistics(nodes.sum(), System.nanoTime() - startNanos, firstSolutionNanos);
+        }
+
+        /**
+         * @return lower bound of the cost to visit all unvisited locations coming from the last one, or
+         * {@link #UNREACHABLE} if that is not possible at all
+         */
+        int lowerBound(final int last, final long visited, final int[] unvisited, final int[] cheapest) {
+            // cheapest edge into every unvisited location (from another unvisited location or the last one)
+            long sum = 0;
+            int count = 0;
+            for (int u = 0; u < n; u++) {
+                if ((visited & (1L << u)) != 0)
+                    continue;
+                int cheapestIn = costs[last][u];
+                for (int v = 0; v < n; v++) {
+                    if ((visited & (1L << v)) == 0 && costs[v][u] < cheapestIn)
+                        cheapestIn = costs[v][u];
+                }
+                if (cheapestIn == UNREACHABLE)
+                    return UNREACHABLE;
+                sum += cheapestIn;
+                unvisited[count++] = u;
+            }
+            final long mst = minimumSpanningTree(last, unvisited, count, cheapest);
+            return (int) Math.min(UNREACHABLE, Math.max(sum, mst));
+        }
+
+        /**
+         * Prim's algorithm on the last location and the unvisited ones (O(k^2), no heap needed for dense graphs).
+         */
+        private long minimumSpanningTree(final int last, final int[] unvisited, final int count, final int[] cheapest) {
+            // locations already in the tree are marked with -1
+            for (int i = 0; i < count; i++) {
+                cheapest[i] = costs[last][unvisited[i]];
+            }
+            long total = 0;
+            int remaining = count;
+            while (remaining > 0) {
+                int next = -1;
+                for (int i = 0; i < count; i++) {
+                    if (cheapest[i] >= 0 && (next < 0 || cheapest[i] < cheapest[next]))
+                        next = i;
+                }
+                if (cheapest[next] == UNREACHABLE)
+                    return UNREACHABLE;
+                remaining--;
+                total += cheapest[next];
+                cheapest[next] = -1;
+                for (int i = 0; i < count; i++) {
+                    if (cheapest[i] >= 0)
+                        cheapest[i] = Math.min(cheapest[i], costs[unvisited[next]][unvisited[i]]);
+                }
+            }
+            return total;
+        }
+    }
+
+    /**
+     * All routes that start with the given locations.
+     */
+    private static class Branch extends RecursiveAction {
+        private final Search search;
+        private final int[] order;
+        private final int depth;
+        private final long visited;
+        private final int cost;
+        // work space of the bounds
+        private final int[] unvisited;
+        private final int[] cheapest;
+        private long nodes = 0;
+
+        Branch(final Search search, final int[] order, final int depth, final long visited, final int cost) {
+            this.search = search;
+            this.order = order;
+            this.depth = depth;
+            this.visited = visited;
+            this.cost = cost;
+            this.unvisited = new int[order.length];
+            this.cheapest = new int[order.length];
+        }
+
+        @Override
+        protected void compute() {
+            if (depth < SPLIT_DEPTH && depth < order.length - 1) {
+                nodes++;
+                final int last = order[depth - 1];
+                invokeAll(Arrays.stream(search.neighbors[last])
+                        .filter(next -> (visited & (1L << next)) == 0)
+                        .mapToObj(next -> {
+                            final int[] copy = order.clone();
+                            copy[depth] = next;
+                            return new Branch(search, copy, depth + 1, visited | (1L << next),
+                                    cost + search.costs[last][next]);
+                        })
+                        .toList());
+            } else {
+                explore(depth, visited, cost);
+            }
+            search.nodes.add(nodes);
+        }
+
+        private void explore(final int depth, final long visited, final int cost) {
+            nodes++;
+            final int n = order.length;
+            if (depth == n) {
+                // a route and its reverse cost the same, only take one of them
+                if (order[0] < order[n - 1])
+                    search.offer(order, cost);
+                return;
+            }
+            final int last = order[depth - 1];
+            final int bound = search.lowerBound(last, visited, unvisited, cheapest);
+            if (bound == UNREACHABLE || !search.canBeat(order, depth, (long) cost + bound))
+                return;
+
+            for (int next : search.neighbors[last]) {
+                if ((visited & (1L << next)) != 0)
+                    continue;
+                final int newCost = cost + search.costs[last][next];
+                order[depth] = next;
+                if (!search.canBeat(order, depth + 1, newCost))
+                    continue;
+                explore(depth + 1, visited | (1L << next), newCost);
+            }
+        }
+    }
+}
@@ -1,6 +1,20 @@
 package com.adventofcode.yr2015;
 
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
 public class Day10 {
+    /**
+     * Conway's constant: the length of the sequence grows by this factor per round in the long run
+     */
+    private static final double GROWTH = 1.303577269;
+    /**
+     * digits per buffer (two of them are needed), longer rounds are only streamed
+     */
+    private static final int MAX_BUFFER_LENGTH = 1 << 26;
+    private static final int DIGEST_CHUNK_SIZE = 8192;
+
     public static String convert(final String input) {
         String txt = input;
         String result = "";
@@ -52,4 +66,215 @@ public class Day10 {
 
         return result;
     }
+
+    /**
+     * Length of the sequence after the given number of rounds, without creating any {@code String}.
+     *
+     * @see LookAndSay
+     */
+    public static long getLength(final CharSequence input, final int rounds) {
+        return getLength(input, rounds, MAX_BUFFER_LENGTH);
+    }
+
+    static long getLength(final CharSequence input, final int rounds, final int maxBufferLength) {
+        final LookAndSay sequence = new LookAndSay(input, rounds, maxBufferLength);
+        if (rounds == 0)
+            return input.length();
+        final long[] length = {0};
+        sequence.runs(rounds - 1, (count, digit) ->
+                length[0] += digitsOf(count) + 1);
+        return length[0];
+    }
+
+    /**
+     * Digest of the decimal digits of the sequence after the given number of rounds (the same as of its
+     * {@code String}), without creating that {@code String}.
+     *
+     * @param algorithm e.g. {@code "SHA-256"}
+     * @see LookAndSay
+     */
+    public static byte[] getDigest(final CharSequence input, final int rounds, final String algorithm) {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance(algorithm);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalArgumentException("unknown digest algorithm: " + algorithm, e);
+        }
+        final LookAndSay sequence = new LookAndSay(input, rounds, MAX_BUFFER_LENGTH);
+        if (rounds == 0) {
+            for (int i = 0; i < input.length(); i++) {
+                digest.update((byte) input.charAt(i));
+            }
+            return digest.digest();
+        }
+
+        final byte[] chunk = new byte[DIGEST_CHUNK_SIZE];
+        final int[] size = {0};
+        sequence.runs(rounds - 1, (count, digit) -> {
+            // a count has 19 digits at most
+            if (size[0] + 20 > chunk.length) {
+                digest.update(chunk, 0, size[0]);
+                size[0] = 0;
+            }
+            final int digits = digitsOf(count);
+            long rest = count;
+            for (int i = size[0] + digits - 1; i >= size[0]; i--) {
+                chunk[i] = (byte) ('0' + rest % 10);
+                rest /= 10;
+            }
+            chunk[size[0] + digits] = (byte) ('0' + digit);
+            size[0] += digits + 1;
+        });
+        digest.update(chunk, 0, size[0]);
+        return digest.digest();
+    }
+
+    private static int digitsOf(final long count) {
+        // almost always a single digit
+        int digits = 1;
+        for (long rest = count; rest >= 10; rest /= 10) {
+            digits++;
+        }
+        return digits;
+    }
+
+    private interface RunConsumer {
+        void accept(long count, int digit);
+    }
+
+    /**
+     * Look-and-say on digit buffers: the digits of a round are stored as values (not characters) in one {@code byte[]}
+     * and the next round is written into a second one, then both swap their roles. Both are sized once from the
+     * growth by Conway's constant, so they hardly ever need to grow.
+     *
+     * <p>Rounds that would not fit into the buffers (and the last round anyway) are not stored at all: each of them is
+     * a stage that groups the digits it gets into runs and passes the count and digit of every finished run on to the
+     * next stage. The digits of the last stored round flow through all stages one by one, so these rounds need only
+     * constant memory each.
+     */
+    private static final class LookAndSay {
+        private final int maxBufferLength;
+        private byte[] current;
+        private byte[] next;
+        private int length;
+
+        // state of the streamed rounds: the current run of each stage
+        private int[] runDigit;
+        private long[] runCount;
+        private RunConsumer consumer;
+
+        LookAndSay(final CharSequence input, final int rounds, final int maxBufferLength) {
+            if (rounds < 0)
+                throw new IllegalArgumentException("rounds must not be negative, but was: " + rounds);
+            this.maxBufferLength = maxBufferLength;
+            length = input.length();
+            current = new byte[length];
+            for (int i = 0; i < length; i++) {
+                final char c = input.charAt(i);
+                if (c < '0' || c > '9')
+                    throw new IllegalArgumentException("only digits are allowed, but was: " + c);
+                current[i] = (byte) (c - '0');
+            }
+        }
+
+        /**
+         * Hands all runs of the sequence after the given number of rounds to the consumer, in order.
+         */
+        void runs(final int rounds, final RunConsumer consumer) {
+            int stored = 0;
+            if (rounds > 0) {
+                final double estimate = length * Math.pow(GROWTH, rounds) * 1.1 + 2 * length + 16;
+                next = new byte[(int) Math.min(maxBufferLength, estimate)];
+                while (stored < rounds && nextRound())
+                    stored++;
+            }
+
+            final int stages = rounds - stored + 1;
+            runDigit = new int[stages];
+            runCount = new long[stages];
+            this.consumer = consumer;
+            for (int i = 0; i < length; i++) {
+                push(0, current[i]);
+            }
+            for (int stage = 0; stage < stages; stage++) {
+                flush(stage);
+            }
+        }
+
+        /**
+         * @return {@code false} if the next round does not fit into the buffers (then the current one is unchanged)
+         */
+        private boolean nextRound() {
+            final byte[] in = current;
+            final int end = length;
+            byte[] out = next;
+            int size = 0;
+            int i = 0;
+            while (i < end) {
+                final byte digit = in[i];
+                final int start = i;
+                while (++i < end && in[i] == digit) {
+                    // same run
+                }
+                final int count = i - start;
+                final int digits = digitsOf(count);
+                if (size + digits + 1 > out.length) {
+                    final long wanted = (long) Math.max(out.length * GROWTH, size + digits + 1);
+                    if (size + digits + 1 > maxBufferLength)
+                        return false;
+                    out = Arrays.copyOf(out, (int) Math.min(maxBufferLength, wanted));
+                }
+                int rest = count;
+                for (int at = size + digits - 1; at >= size; at--) {
+                    out[at] = (byte) (rest % 10);
+                    rest /= 10;
+                }
+                out[size + digits] = digit;
+                size += digits + 1;
+            }
+            next = current;
+            current = out;
+            length = size;
+            if (next.length < current.length)
+                next = new byte[current.length];
+            return true;
+        }
+
+        private void push(final int stage, final int digit) {
+            if (runCount[stage] > 0 && runDigit[stage] == digit) {
+                runCount[stage]++;
+                return;
+            }
+            flush(stage);
+            runDigit[stage] = digit;
+            runCount[stage] = 1;
+        }
+
+        /**
+         * Passes the current run of the stage on (if there is one).
+         */
+        private void flush(final int stage) {
+            final long count = runCount[stage];
+            if (count == 0)
+                return;
+            runCount[stage] = 0;
+            if (stage == runCount.length - 1) {
+                consumer.accept(count, runDigit[stage]);
+                return;
+            }
+            if (count >= 10) {
+                // most significant digit first
+                long power = 10;
+                while (power <= count / 10) {
+                    power *= 10;
+                }
+                for (; power > 0; power /= 10) {
+                    push(stage + 1, (int) (count / power % 10));
+                }
+            } else {
+                push(stage + 1, (int) count);
+            }
+            push(stage + 1, runDigit[stage]);
+        }
+    }
 }
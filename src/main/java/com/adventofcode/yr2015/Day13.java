@@ -43,49 +43,92 @@ public class Day13 {
 
     public BestSeatOrder getMaxHappiness() {
         //  each person will have exactly two neighbors.
-        var options = getOptions();
-        System.out.println("there are " + options.keySet().size() + " options");
+        String[] names = people.keySet().stream().sorted().toArray(String[]::new);
+        int[][] happiness = getHappinessPerPair(names);
+
+        // all seat orders in parallel; of equally good ones the last (in lexicographic order) wins, as in getOptions()
+        var best = CompleteEnumerationGenerator.streamPermutations(names.length, true)
+                .collect(() -> new BestOrder(names.length),
+                        (result, option) -> result.offer(getHappiness(option, happiness), option),
+                        BestOrder::takeIfNotWorse);
+        if (best.order == null)
+            return new BestSeatOrder(-1, null);
+        return new BestSeatOrder(best.value, Arrays.stream(best.order).mapToObj(idx -> names[idx]).toList());
+    }
+
+    /**
+     * Best seat order of a part of all seat orders (one per thread, so no synchronization needed).
+     */
+    private static class BestOrder {
+        private final int size;
+        private int value = Integer.MIN_VALUE;
+        private int[] order = null;
 
-        var max = options.keySet().stream().mapToInt(Integer::intValue)
-                .max().orElse(-1);
-        return new BestSeatOrder(max, options.get(max));
+        BestOrder(int size) {
+            this.size = size;
+        }
+
+        void offer(int newValue, int[] newOrder) {
+            if (order != null && newValue < value)
+                return;
+            if (order == null)
+                order = new int[size];
+            value = newValue;
+            System.arraycopy(newOrder, 0, order, 0, size);
+        }
+
+        /**
+         * @param later result of the seat orders after the ones of this result
+         */
+        void takeIfNotWorse(BestOrder later) {
+            if (later.order != null)
+                offer(later.value, later.order);
+        }
     }
 
     /**
      * @see Day09#getRoutes()
      */
     protected Map<Integer, List<String>> getOptions() {
+        String[] names = people.keySet().stream().sorted().toArray(String[]::new);
+        int[][] happiness = getHappinessPerPair(names);
+
+        // for every total, the last seat order (in lexicographic order) that reaches it
+        Map<Integer, int[]> orders = new HashMap<>();
+        var enumerations = CompleteEnumerationGenerator.permutations(names.length);
+        while (enumerations.hasNext()) {
+            int[] option = enumerations.next();
+            int total_happiness = getHappiness(option, happiness);
+            System.arraycopy(option, 0, orders.computeIfAbsent(total_happiness, k -> new int[option.length]), 0, option.length);
+        }
+
         Map<Integer, List<String>> result = new HashMap<>();
+        orders.forEach((total, order) -> result.put(total, Arrays.stream(order).mapToObj(idx -> names[idx]).toList()));
+        return result;
+    }
 
-        String[] names = people.keySet().stream().sorted().toArray(String[]::new);
-        List<int[]> enumerations = CompleteEnumerationGenerator.getEnumerations(names.length);
-        for (int[] option : enumerations) {
-            List<String> seatOrder = new LinkedList<>();
-            for (int idx : option) {
-                seatOrder.add(names[idx]);
+    /**
+     * @return change of happiness of both persons if they sit next to each other
+     */
+    private int[][] getHappinessPerPair(String[] names) {
+        int[][] result = new int[names.length][names.length];
+        for (int a = 0; a < names.length; a++) {
+            for (int b = 0; b < names.length; b++) {
+                if (a != b)
+                    result[a][b] = people.get(names[a]).happynessPerNeighbor.get(names[b])
+                            + people.get(names[b]).happynessPerNeighbor.get(names[a]);
             }
-            int total_happiness = getHappiness(seatOrder);
-            result.put(total_happiness, seatOrder);
         }
         return result;
     }
 
-    private int getHappiness(List<String> seatOrder) {
+    private static int getHappiness(int[] seatOrder, int[][] happiness) {
         int result = 0;
-        for (int pos = 0; pos < seatOrder.size()-1; pos++) {
-            var leftName = seatOrder.get(pos);
-            var rightName = seatOrder.get(pos+1);
-            var leftSeat = people.get(leftName);
-            var rightSeat = people.get(rightName);
-            result += leftSeat.happynessPerNeighbor.get(rightName) + rightSeat.happynessPerNeighbor.get(leftName);
+        for (int pos = 0; pos < seatOrder.length - 1; pos++) {
+            result += happiness[seatOrder[pos]][seatOrder[pos + 1]];
         }
         // last with first to close the circle
-        var firstName = seatOrder.get(0);
-        var lastName = seatOrder.get(seatOrder.size()-1); // -1 because counting starts with 0 ;-)
-        var firstSeat = people.get(firstName);
-        var lastSeat = people.get(lastName);
-        result += firstSeat.happynessPerNeighbor.get(lastName) + lastSeat.happynessPerNeighbor.get(firstName);
-
+        result += happiness[seatOrder[seatOrder.length - 1]][seatOrder[0]];
         return result;
     }
 
@@ -1,8 +1,10 @@
 package com.adventofcode.yr2015;
 
-import org.github.ruderphilipp.CompleteEnumerationGenerator;
-
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -77,41 +79,905 @@ public class Day15 {
      * negative total, it would have instead become zero, causing the whole score to multiply to zero.
      */
     public long getHighestScore(int numberOfSpoons) {
-        List<Map<Ingredient, Integer>> all = getAllCombinations(numberOfSpoons);
-        return all.stream().mapToLong(Day15::getScore).max().orElseThrow();
+        return new RecipeSearch(getSortedIngredients(), numberOfSpoons).run();
     }
 
-    private List<Map<Ingredient, Integer>> getAllCombinations(int spoons) {
-        List<Map<Ingredient, Integer>> result = new LinkedList<>();
-        var pickingOptions = CompleteEnumerationGenerator.getBucketPicks(ingredients.size(), spoons);
-        // sorted list of all ingredients, so that we can pick by number
+    /**
+     * sorted list of all ingredients, so that we can pick by number
+     */
+    private Ingredient[] getSortedIngredients() {
         //@formatter:off
-        Ingredient[] stuff = ingredients.stream()
-                                        .sorted(Comparator.comparing(Ingredient::name))
-                                        .toArray(Ingredient[]::new);
+        return ingredients.stream()
+                          .sorted(Comparator.comparing(Ingredient::name))
+                          .toArray(Ingredient[]::new);
         //@formatter:on
-        for (Map<Integer, Integer> option : pickingOptions) {
-            Map<Ingredient, Integer> x = new HashMap<>();
-            for (int k : option.keySet()) {
-                // take ingredient number "k" and use amount spoons of it
-                var ing = stuff[k];
-                var amount = option.get(k);
-                x.put(ing, amount);
-            }
-            result.add(x);
-        }
-        return result;
     }
 
     public long getHighestScoreWithCaloryLimit(int numberOfSpoons, int maxCalories) {
-        List<Map<Ingredient, Integer>> all = getAllCombinations(numberOfSpoons);
-        //@formatter:off
-        return all.stream()
-                  .filter(x -> getCalories(x) == maxCalories)
-                  .mapToLong(Day15::getScore)
-                  .max()
-                  .orElseThrow();
-        //@formatter:on
+        return new RecipeSearch(getSortedIngredients(), numberOfSpoons, maxCalories).run();
+    }
+
+    /**
+     * Depth-first branch and bound over all recipes (every ingredient gets at least one spoon), one ingredient after
+     * the other, with the sums of the properties and calories kept per depth.
+     *
+     * <p>A branch (the amounts of the first ingredients are fixed) is cut off if no recipe in it can beat the best one
+     * found so far. Two upper bounds of its scores are used:
+     * <ul>
+     * <li>Each remaining spoon adds at most the largest value of the remaining ingredients to a property, so the
+     * product of these maximal properties (each at least {@code 0}, saturated at {@link Long#MAX_VALUE}) is a
+     * bound.</li>
+     * <li>One spoon of each remaining ingredient is fixed; spread continuously, the other spoons add {@code left * x}
+     * to the sums for some point {@code x} in the convex hull of the remaining ingredients. For positive weights
+     * {@code w}, the inequality of arithmetic and geometric means gives
+     * {@code y1 * y2 * y3 * y4 <= ((w1 * y1 + ... + w4 * y4) / 4)^4 / (w1 * w2 * w3 * w4)} for all positive property
+     * sums {@code y}, and the weighted sum is at most that of the fixed spoons plus {@code left} times the largest
+     * weighted sum of a remaining ingredient. This holds for any weights; they are chosen as {@code 1 / y} of a good
+     * continuous recipe found by a few Frank-Wolfe steps, which makes the bound almost tight. The continuous recipe of
+     * a branch is also where the search of its amounts starts, going outward from there. If it has a property sum that
+     * is not positive, a small linear program maximizes the smallest property sum instead; if even that is below 1, the
+     * weights of its dual solution prove that no recipe in the branch scores more than {@code 0}.</li>
+     * </ul>
+     * A bound below 1 means that no recipe in the branch scores more than 0; such a branch is only searched for any
+     * recipe at all as long as none has been found yet. With a calorie limit, a branch is also cut if the remaining
+     * spoons can no longer reach exactly the limit: they add between the smallest and the largest calories of the
+     * remaining ingredients each, and every spoon moved from the last ingredient to another one changes the calories by
+     * a multiple of the greatest common divisor of the differences.
+     *
+     * <p>The recipes with at least some amount of an ingredient form a branch, too (that amount fixed, the other spoons
+     * spread over the ingredient and all after it), so going up from the start, the amounts stop once that branch is
+     * cut.
+     *
+     * <p>The amounts of the last two ingredients are not enumerated: with a calorie limit, the spoons and calories that
+     * are left fix both of them (unless they have the same calories). Otherwise, the score is {@code 0} or log-concave
+     * in the amount of the first one, so a ternary search finds the best split.
+     *
+     * <p>The ingredients are searched in the order of their share of the best continuous recipe, so the ones that are
+     * hardly used come first and the main ones are left for the end. The amounts of the first ingredient are split into
+     * tasks of a fork-join pool that share the best score.
+     */
+    private static class RecipeSearch {
+        private static final int PROPERTIES = 4;
+        // Frank-Wolfe steps for the whole search and per branch
+        private static final int ROOT_STEPS = 1000;
+        private static final int BRANCH_STEPS = 25;
+        private static final int LINE_SEARCH_STEPS = 40;
+        // relative error of the floating point bound that is tolerated
+        private static final double TOLERANCE = 1e-9;
+
+        private final int count;
+        private final int spoons;
+        // calories can be negative, so "no limit" is a flag of its own and not a special limit
+        private final boolean limited;
+        private final int calorieLimit;
+        /**
+         * [ingredient][property], in search order
+         */
+        private final int[][] properties;
+        private final int[] calories;
+        private final int maxAbsolute;
+        // largest and smallest values of all ingredients from the index on
+        private final int[][] remainingMax;
+        private final int[] remainingCaloriesMin;
+        private final int[] remainingCaloriesMax;
+        // calories of one spoon of every ingredient from the index on
+        private final long[] remainingCalories;
+        // greatest common divisor of the differences to the calories of the last ingredient from the index on
+        private final long[] remainingCaloriesGcd;
+        // share of every ingredient in the best continuous recipe
+        private final double[] rootShares;
+        private final AtomicLong best = new AtomicLong(0);
+        private final AtomicBoolean found = new AtomicBoolean(false);
+
+        RecipeSearch(final Ingredient[] stuff, final int spoons) {
+            this(stuff, spoons, false, 0);
+        }
+
+        RecipeSearch(final Ingredient[] stuff, final int spoons, final int calorieLimit) {
+            this(stuff, spoons, true, calorieLimit);
+        }
+
+        private RecipeSearch(final Ingredient[] stuff, final int spoons, final boolean limited,
+                             final int calorieLimit) {
+            this.count = stuff.length;
+            this.spoons = spoons;
+            this.limited = limited;
+            this.calorieLimit = calorieLimit;
+            this.properties = new int[count][];
+            this.calories = new int[count];
+            for (int i = 0; i < count; i++) {
+                var x = stuff[i];
+                properties[i] = new int[]{x.capacity(), x.durability(), x.flavor(), x.texture()};
+                calories[i] = x.calories();
+            }
+            int max = 0;
+            for (int[] values : properties) {
+                for (int value : values) {
+                    max = Math.max(max, Math.abs(value));
+                }
+            }
+            maxAbsolute = max;
+
+            final double[] shares = new double[count];
+            Arrays.fill(shares, 1.0 / Math.max(1, count));
+            new Relaxation().bound(new long[PROPERTIES], 0, 0, spoons, shares, ROOT_STEPS, 0);
+            final Integer[] order = new Integer[count];
+            for (int i = 0; i < count; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, Comparator.comparingDouble(i -> shares[i]));
+            final int[][] sortedProperties = properties.clone();
+            final int[] sortedCalories = calories.clone();
+            rootShares = new double[count];
+            for (int i = 0; i < count; i++) {
+                properties[i] = sortedProperties[order[i]];
+                calories[i] = sortedCalories[order[i]];
+                rootShares[i] = shares[order[i]];
+            }
+
+            remainingMax = new int[count + 1][PROPERTIES];
+            remainingCaloriesMin = new int[count + 1];
+            remainingCaloriesMax = new int[count + 1];
+            remainingCalories = new long[count + 1];
+            remainingCaloriesGcd = new long[count + 1];
+            Arrays.fill(remainingMax[count], Integer.MIN_VALUE);
+            remainingCaloriesMin[count] = Integer.MAX_VALUE;
+            remainingCaloriesMax[count] = Integer.MIN_VALUE;
+            for (int i = count - 1; i >= 0; i--) {
+                for (int p = 0; p < PROPERTIES; p++) {
+                    remainingMax[i][p] = Math.max(remainingMax[i + 1][p], properties[i][p]);
+                }
+                remainingCaloriesMin[i] = Math.min(remainingCaloriesMin[i + 1], calories[i]);
+                remainingCaloriesMax[i] = Math.max(remainingCaloriesMax[i + 1], calories[i]);
+                remainingCalories[i] = remainingCalories[i + 1] + calories[i];
+                final long difference = Math.abs((long) calories[i] - calories[count - 1]);
+                remainingCaloriesGcd[i] = gcd(remainingCaloriesGcd[i + 1], difference);
+            }
+        }
+
+        /**
+         * @throws NoSuchElementException if there is no recipe at all (with the calorie limit)
+         */
+        long run() {
+            if (count == 0 || spoons < count)
+                throw new NoSuchElementException("no recipe with " + spoons + " spoons of " + count + " ingredients");
+            if (count <= 2) {
+                new Branch().compute();
+            } else {
+                ForkJoinPool.commonPool().invoke(new RecursiveAction() {
+                    @Override
+                    protected void compute() {
+                        final List<Branch> branches = new ArrayList<>();
+                        final int max = spoons - (count - 1);
+                        final int center = Math.max(1, Math.min(max, 1 + (int) Math.round(rootShares[0] * (max - 1))));
+                        for (int distance = 0; center + distance <= max || center - distance >= 1; distance++) {
+                            if (center + distance <= max)
+                                branches.add(new Branch(center + distance));
+                            if (distance > 0 && center - distance >= 1)
+                                branches.add(new Branch(center - distance));
+                        }
+                        invokeAll(branches);
+                    }
+                });
+            }
+            if (!found.get())
+                throw new NoSuchElementException("no recipe with exactly " + calorieLimit + " calories");
+            return best.get();
+        }
+
+        private void record(final long score) {
+            best.accumulateAndGet(score, Math::max);
+            found.set(true);
+        }
+
+        /**
+         * All recipes with the given amount of the first ingredient (or all recipes at all).
+         */
+        private class Branch extends RecursiveAction {
+            private final int start;
+            private final int left;
+            /**
+             * sums of the properties before the ingredient of the index
+             */
+            private final long[][] sums = new long[count + 1][PROPERTIES];
+            private final long[] calorieSums = new long[count + 1];
+            /**
+             * continuous recipe of the remaining spoons per depth (share of every ingredient from the index on)
+             */
+            private final double[][] shares = new double[count + 1][count];
+            private final Relaxation relaxation = new Relaxation();
+            private final long[] tail = new long[PROPERTIES];
+
+            Branch() {
+                this.start = 0;
+                this.left = spoons;
+                System.arraycopy(rootShares, 0, shares[0], 0, count);
+            }
+
+            Branch(final int firstAmount) {
+                this.start = 1;
+                this.left = spoons - firstAmount;
+                for (int p = 0; p < PROPERTIES; p++) {
+                    sums[1][p] = (long) firstAmount * properties[0][p];
+                }
+                calorieSums[1] = (long) firstAmount * calories[0];
+                withoutFirst(rootShares, shares[1], 0);
+            }
+
+            @Override
+            protected void compute() {
+                search(start, left);
+            }
+
+            /**
+             * @param next index of the next ingredient to choose the amount of
+             * @param left spoons for it and all after it
+             */
+            private void search(final int next, final int left) {
+                if (next == count) {
+                    if (!limited || calorieSums[next] == calorieLimit)
+                        record(score(sums[next]));
+                    return;
+                }
+                if (!caloriesReachable(next, left))
+                    return;
+                if (next == count - 1) {
+                    // the last one gets all spoons that are left
+                    for (int p = 0; p < PROPERTIES; p++) {
+                        sums[next + 1][p] = sums[next][p] + (long) left * properties[next][p];
+                    }
+                    calorieSums[next + 1] = calorieSums[next] + (long) left * calories[next];
+                    search(next + 1, 0);
+                    return;
+                }
+                if (next == count - 2) {
+                    searchLastTwo(next, left);
+                    return;
+                }
+
+                final double target = found.get() ? (best.get() + 1) / (1 + TOLERANCE) : 1 / (1 + TOLERANCE);
+                final double relaxed = relaxation.bound(sums[next], calorieSums[next], next, left, shares[next],
+                        BRANCH_STEPS, target);
+                final double bound = (1 + TOLERANCE) * Math.min(propertyBound(next, left), relaxed);
+                if (bound < 1) {
+                    if (!found.get() && anyRecipe(next, calorieSums[next], left))
+                        found.set(true);
+                    return;
+                }
+                if (bound < best.get() + 1)
+                    return;
+
+                withoutFirst(shares[next], shares[next + 1], next);
+                // every ingredient after this one needs at least one spoon
+                final int max = left - (count - next - 1);
+                final int center = Math.max(1, Math.min(max, 1 + (int) Math.round(shares[next][next] * (max - 1))));
+                int above = center;
+                int below = center - 1;
+                while (above <= max || below >= 1) {
+                    if (above <= max) {
+                        if (above > center && noneBetterFrom(next, left, above)) {
+                            above = max + 1;
+                        } else {
+                            choose(next, left, above++);
+                        }
+                    }
+                    if (below >= 1)
+                        choose(next, left, below--);
+                }
+            }
+
+            /**
+             * The recipes with at least the amount of the ingredient of the index are a branch of their own: the amount
+             * is fixed and the other spoons are spread over the ingredient and all after it.
+             *
+             * @return whether none of these recipes beats the best one found so far
+             */
+            private boolean noneBetterFrom(final int next, final int left, final int amount) {
+                if (!found.get())
+                    return false;
+                for (int p = 0; p < PROPERTIES; p++) {
+                    tail[p] = sums[next][p] + (long) (amount - 1) * properties[next][p];
+                }
+                final long calorieSum = calorieSums[next] + (long) (amount - 1) * calories[next];
+                final double target = (best.get() + 1) / (1 + TOLERANCE);
+                final double bound = relaxation.bound(tail, calorieSum, next, left - (amount - 1), shares[next],
+                        BRANCH_STEPS, target);
+                return (1 + TOLERANCE) * bound < best.get() + 1;
+            }
+
+            private void choose(final int next, final int left, final int amount) {
+                final long[] before = sums[next];
+                final long[] after = sums[next + 1];
+                for (int p = 0; p < PROPERTIES; p++) {
+                    after[p] = before[p] + (long) amount * properties[next][p];
+                }
+                calorieSums[next + 1] = calorieSums[next] + (long) amount * calories[next];
+                search(next + 1, left - amount);
+            }
+
+            /**
+             * The amount {@code a} of the ingredient of the index and {@code left - a} of the last one.
+             */
+            private void searchLastTwo(final int next, final int left) {
+                final int[] first = properties[next];
+                final int[] last = properties[next + 1];
+                long lo = 1;
+                long hi = left - 1;
+                if (limited) {
+                    final long missing = calorieLimit - calorieSums[next];
+                    final int difference = calories[next] - calories[next + 1];
+                    if (difference != 0) {
+                        // a * calories[next] + (left - a) * calories[next + 1] == missing
+                        final long numerator = missing - (long) left * calories[next + 1];
+                        if (numerator % difference != 0)
+                            return;
+                        lo = Math.max(lo, numerator / difference);
+                        hi = Math.min(hi, numerator / difference);
+                        if (lo > hi)
+                            return;
+                    } else if (missing != (long) left * calories[next]) {
+                        return;
+                    }
+                }
+                record(0);
+
+                // every property is linear in a: sums + left * last + a * (first - last), only keep where all are > 0
+                final long[] base = new long[PROPERTIES];
+                final long[] slope = new long[PROPERTIES];
+                for (int p = 0; p < PROPERTIES; p++) {
+                    base[p] = sums[next][p] + (long) left * last[p];
+                    slope[p] = first[p] - last[p];
+                    if (slope[p] > 0) {
+                        lo = Math.max(lo, Math.floorDiv(-base[p], slope[p]) + 1);
+                    } else if (slope[p] < 0) {
+                        hi = Math.min(hi, -Math.floorDiv(-base[p], -slope[p]) - 1);
+                    } else if (base[p] <= 0) {
+                        return;
+                    }
+                }
+                // the logarithm of the score is concave there
+                while (hi - lo > 2) {
+                    final long third = (hi - lo) / 3;
+                    if (score(base, slope, lo + third) < score(base, slope, hi - third)) {
+                        lo = lo + third + 1;
+                    } else {
+                        hi = hi - third;
+                    }
+                }
+                for (long a = lo; a <= hi; a++) {
+                    record(score(base, slope, a));
+                }
+            }
+
+            /**
+             * @return upper bound of the score of all recipes in the branch, at most {@link Long#MAX_VALUE}
+             */
+            private long propertyBound(final int next, final int left) {
+                long bound = 1;
+                for (int p = 0; p < PROPERTIES; p++) {
+                    final long max = Math.max(0, sums[next][p] + (long) left * remainingMax[next][p]);
+                    final long product = bound * max;
+                    bound = (Math.multiplyHigh(bound, max) == 0 && product >= 0) ? product : Long.MAX_VALUE;
+                }
+                return bound;
+            }
+
+            /**
+             * Whether the branch contains any recipe (that matches the calorie limit), regardless of its score.
+             *
+             * @param calorieSum calories of the ingredients before the one of the index
+             */
+            private boolean anyRecipe(final int next, final long calorieSum, final int left) {
+                if (!caloriesReachable(next, calorieSum, left))
+                    return false;
+                if (next == count - 1 || !limited)
+                    return true;
+                for (int amount = 1; amount <= left - (count - next - 1); amount++) {
+                    if (anyRecipe(next + 1, calorieSum + (long) amount * calories[next], left - amount))
+                        return true;
+                }
+                return false;
+            }
+
+            private boolean caloriesReachable(final int next, final int left) {
+                return caloriesReachable(next, calorieSums[next], left);
+            }
+
+            private boolean caloriesReachable(final int next, final long calorieSum, final int left) {
+                if (!limited)
+                    return true;
+                // one spoon of each is fixed, the others add between the smallest and the largest calories
+                final long missing = calorieLimit - calorieSum - remainingCalories[next];
+                final long free = left - (count - next);
+                if (free < 0 || missing < free * remainingCaloriesMin[next])
+                    return false;
+                if (free * remainingCaloriesMax[next] < missing)
+                    return false;
+                // each spoon moved from the last ingredient to another changes the calories by a multiple of the gcd
+                final long difference = calorieLimit - calorieSum - (long) left * calories[count - 1];
+                final long gcd = remainingCaloriesGcd[next];
+                return gcd == 0 ? difference == 0 : difference % gcd == 0;
+            }
+        }
+
+        /**
+         * Shares of the ingredients after {@code index}: the one of the index is dropped and the others scaled up.
+         */
+        private void withoutFirst(final double[] shares, final double[] result, final int index) {
+            double total = 0;
+            for (int i = index + 1; i < count; i++) {
+                total += shares[i];
+            }
+            for (int i = index + 1; i < count; i++) {
+                result[i] = total > 0 ? shares[i] / total : 1.0 / (count - index - 1);
+            }
+        }
+
+        /**
+         * Continuous relaxation of a branch: after one spoon of each, the spoons that are left are spread over the
+         * remaining ingredients by their shares (which add up to 1). With a calorie limit, the shares also have to
+         * give exactly the missing calories, so the corners of the relaxation are not the ingredients themselves but
+         * mixes of two of them (one with more, one with fewer calories per spoon than needed).
+         */
+        private class Relaxation {
+            private final double[] sums = new double[PROPERTIES];
+            // property sums of the continuous recipe, the weights and the step towards the best corner
+            private final double[] y = new double[PROPERTIES];
+            private final double[] weights = new double[PROPERTIES];
+            private final double[] step = new double[PROPERTIES];
+            private int next;
+            private int left;
+            private long missing;
+            // best corner of the last call of corner(): share of first, the rest of second
+            private int first;
+            private int second;
+            private double share;
+            // rounding error of the last weightedBound()
+            private double slack;
+
+            /**
+             * Improves the shares by Frank-Wolfe steps (maximizing the sum of the logarithms of the properties) until
+             * the bound is at most the target.
+             *
+             * @param calorieSum calories of the ingredients before the one of the index
+             * @return upper bound of the product of the property sums of all recipes in the branch with only positive
+             * property sums, {@link Double#POSITIVE_INFINITY} if no continuous recipe with positive properties was
+             * found
+             */
+            double bound(final long[] fixed, final long calorieSum, final int next, final int left,
+                         final double[] shares, final int steps, final double target) {
+                // every remaining ingredient gets one spoon for sure, only the other spoons are spread
+                this.next = next;
+                this.left = left - (count - next);
+                this.missing = calorieLimit - calorieSum;
+                for (int p = 0; p < PROPERTIES; p++) {
+                    sums[p] = fixed[p];
+                }
+                for (int i = next; i < count; i++) {
+                    missing -= calories[i];
+                    for (int p = 0; p < PROPERTIES; p++) {
+                        sums[p] += properties[i][p];
+                    }
+                }
+                if (this.left <= 0) {
+                    // nothing to spread
+                    if (this.left < 0 || (limited && missing != 0))
+                        return 0;
+                    double product = 1;
+                    for (int p = 0; p < PROPERTIES; p++) {
+                        product *= Math.max(0, sums[p]);
+                    }
+                    return product;
+                }
+                if (limited)
+                    restoreCalories(shares);
+                for (int p = 0; p < PROPERTIES; p++) {
+                    y[p] = sums[p];
+                    for (int i = next; i < count; i++) {
+                        y[p] += this.left * shares[i] * properties[i][p];
+                    }
+                }
+                if (smallest() < 1) {
+                    if (isHopeless(shares))
+                        return 0;
+                    if (!isPositive())
+                        return Double.POSITIVE_INFINITY;
+                }
+
+                double bound = Double.POSITIVE_INFINITY;
+                for (int s = 0; s < steps; s++) {
+                    // weights 1 / y, so the product of the weights is 1 / (y1 * y2 * y3 * y4)
+                    double product = 1;
+                    for (int p = 0; p < PROPERTIES; p++) {
+                        weights[p] = 1 / y[p];
+                        product *= y[p];
+                    }
+                    final double weightedSum = weightedBound();
+                    final double mean = Math.max(0, (weightedSum + slack) / PROPERTIES);
+                    bound = Math.min(bound, product * mean * mean * mean * mean);
+                    if (bound <= target || mean <= 1 + TOLERANCE)
+                        break;
+
+                    final double gamma = lineSearch();
+                    if (gamma <= 0)
+                        break;
+                    move(shares, gamma);
+                }
+                return bound;
+            }
+
+            /**
+             * Solves the linear program "maximize the smallest property sum" of the relaxation exactly. If its optimum
+             * is positive and the shares do not give only positive property sums, they are replaced by its solution.
+             *
+             * @return whether the weights of the dual solution prove that no recipe of the branch scores more than 0
+             */
+            private boolean isHopeless(final double[] shares) {
+                // variables: the shares, the smallest sum (as difference of two) and the surplus of every property
+                final int n = count - next;
+                final int rows = limited ? PROPERTIES + 2 : PROPERTIES + 1;
+                final double[][] a = new double[rows][n + 2 + PROPERTIES];
+                final double[] b = new double[rows];
+                final double[] c = new double[n + 2 + PROPERTIES];
+                for (int i = 0; i < n; i++) {
+                    for (int p = 0; p < PROPERTIES; p++) {
+                        a[p][i] = sums[p] + (double) left * properties[next + i][p];
+                    }
+                    a[PROPERTIES][i] = 1;
+                    if (limited)
+                        a[PROPERTIES + 1][i] = (double) left * calories[next + i];
+                }
+                for (int p = 0; p < PROPERTIES; p++) {
+                    a[p][n] = -1;
+                    a[p][n + 1] = 1;
+                    a[p][n + 2 + p] = -1;
+                }
+                b[PROPERTIES] = 1;
+                if (limited)
+                    b[PROPERTIES + 1] = missing;
+                c[n] = 1;
+                c[n + 1] = -1;
+
+                final Simplex lp = new Simplex(a, b, c);
+                if (!lp.isSolved())
+                    return false;
+                if (lp.value() < 1) {
+                    // weights >= 0 with w . y < w . (1, 1, 1, 1) for every y of the branch: not all property sums can
+                    // be at least 1, so no recipe scores more than 0
+                    double ones = 0;
+                    for (int p = 0; p < PROPERTIES; p++) {
+                        weights[p] = Math.max(0, -lp.dual(p));
+                        ones += weights[p];
+                    }
+                    if (ones > 0 && weightedBound() + slack < ones)
+                        return true;
+                }
+                if (lp.value() > 0 && !isPositive()) {
+                    for (int i = 0; i < n; i++) {
+                        shares[next + i] = lp.solution(i);
+                    }
+                    for (int p = 0; p < PROPERTIES; p++) {
+                        y[p] = sums[p];
+                        for (int i = next; i < count; i++) {
+                            y[p] += left * shares[i] * properties[i][p];
+                        }
+                    }
+                }
+                return false;
+            }
+
+            /**
+             * @return largest {@code weights . y} of all property sums of the branch (up to {@link #slack}); sets the
+             * best corner and the step towards it
+             */
+            private double weightedBound() {
+                final double best = corner();
+                double result = left * best;
+                double magnitude = 0;
+                for (int p = 0; p < PROPERTIES; p++) {
+                    result += weights[p] * sums[p];
+                    magnitude += weights[p] * (Math.abs(sums[p]) + left * maxAbsolute);
+                    final double target = share * properties[first][p] + (1 - share) * properties[second][p];
+                    step[p] = sums[p] + left * target - y[p];
+                }
+                slack = 1e-12 * magnitude;
+                return result;
+            }
+
+            /**
+             * @return largest weighted sum of a corner (per spoon)
+             */
+            private double corner() {
+                double best = Double.NEGATIVE_INFINITY;
+                for (int i = next; i < count; i++) {
+                    final double a = weighted(i);
+                    if (!limited) {
+                        if (a > best) {
+                            best = a;
+                            first = i;
+                            second = i;
+                            share = 1;
+                        }
+                        continue;
+                    }
+                    final long above = (long) left * calories[i] - missing;
+                    if (above < 0)
+                        continue;
+                    for (int j = next; j < count; j++) {
+                        final long below = missing - (long) left * calories[j];
+                        if (below < 0)
+                            continue;
+                        final double theta = above + below == 0 ? 1 : (double) below / (above + below);
+                        final double value = theta * a + (1 - theta) * weighted(j);
+                        if (value > best) {
+                            best = value;
+                            first = i;
+                            second = j;
+                            share = theta;
+                        }
+                    }
+                }
+                return best;
+            }
+
+            private double weighted(final int ingredient) {
+                double result = 0;
+                for (int p = 0; p < PROPERTIES; p++) {
+                    result += weights[p] * properties[ingredient][p];
+                }
+                return result;
+            }
+
+            /**
+             * Mixes the ingredient with the fewest (or most) calories in, so that the shares give exactly the missing
+             * calories (the branch is only searched if they are reachable).
+             */
+            private void restoreCalories(final double[] shares) {
+                final double needed = (double) missing / left;
+                double current = 0;
+                int lowest = next;
+                int highest = next;
+                for (int i = next; i < count; i++) {
+                    current += shares[i] * calories[i];
+                    if (calories[i] < calories[lowest])
+                        lowest = i;
+                    if (calories[i] > calories[highest])
+                        highest = i;
+                }
+                final int other = current > needed ? lowest : highest;
+                if (current == needed || current == calories[other])
+                    return;
+                final double gamma = Math.min(1, (current - needed) / (current - calories[other]));
+                for (int i = next; i < count; i++) {
+                    shares[i] *= 1 - gamma;
+                }
+                shares[other] += gamma;
+            }
+
+            private void move(final double[] shares, final double gamma) {
+                for (int i = next; i < count; i++) {
+                    shares[i] *= 1 - gamma;
+                }
+                shares[first] += gamma * share;
+                shares[second] += gamma * (1 - share);
+                for (int p = 0; p < PROPERTIES; p++) {
+                    y[p] += gamma * step[p];
+                }
+            }
+
+            /**
+             * Bisection for the best point on the way towards the step (the objective is concave along it).
+             */
+            private double lineSearch() {
+                if (slope(1) >= 0)
+                    return 1;
+                double lo = 0;
+                double hi = 1;
+                for (int i = 0; i < LINE_SEARCH_STEPS; i++) {
+                    final double middle = (lo + hi) / 2;
+                    if (slope(middle) > 0) {
+                        lo = middle;
+                    } else {
+                        hi = middle;
+                    }
+                }
+                return lo;
+            }
+
+            /**
+             * @return derivative of the objective at {@code y + gamma * step}, negative where a property is not
+             * positive
+             */
+            private double slope(final double gamma) {
+                double result = 0;
+                for (int p = 0; p < PROPERTIES; p++) {
+                    final double value = y[p] + gamma * step[p];
+                    if (value <= 0)
+                        return -1;
+                    result += step[p] / value;
+                }
+                return result;
+            }
+
+            private double smallest() {
+                double result = Double.POSITIVE_INFINITY;
+                for (int p = 0; p < PROPERTIES; p++) {
+                    result = Math.min(result, y[p]);
+                }
+                return result;
+            }
+
+            private boolean isPositive() {
+                for (int p = 0; p < PROPERTIES; p++) {
+                    if (y[p] <= 0)
+                        return false;
+                }
+                return true;
+            }
+        }
+
+        /**
+         * Maximizes {@code c . x} subject to {@code a x = b} and {@code x >= 0}: two-phase tableau simplex with Bland's
+         * rule, meant for a handful of rows.
+         */
+        private static final class Simplex {
+            private static final double EPSILON = 1e-9;
+            private final int rows;
+            private final int columns;
+            // the last row holds c_B * column - c of every column and the value of the objective
+            private final double[][] table;
+            private final int[] basis;
+            private final boolean[] flipped;
+            private final boolean solved;
+
+            Simplex(final double[][] a, final double[] b, final double[] c) {
+                rows = a.length;
+                columns = c.length;
+                // artificial variables after the original ones, their columns end up as the inverse of the basis
+                table = new double[rows + 1][columns + rows + 1];
+                basis = new int[rows];
+                flipped = new boolean[rows];
+                for (int i = 0; i < rows; i++) {
+                    flipped[i] = b[i] < 0;
+                    final double sign = flipped[i] ? -1 : 1;
+                    for (int j = 0; j < columns; j++) {
+                        table[i][j] = sign * a[i][j];
+                    }
+                    table[i][columns + i] = 1;
+                    table[i][columns + rows] = sign * b[i];
+                    basis[i] = columns + i;
+                }
+
+                // phase 1: maximize the negative sum of the artificial variables
+                final double[] phase1 = new double[columns + rows];
+                Arrays.fill(phase1, columns, columns + rows, -1);
+                objective(phase1);
+                pivotUntilOptimal(columns + rows);
+                if (table[rows][columns + rows] < -EPSILON) {
+                    solved = false;
+                    return;
+                }
+                for (int i = 0; i < rows; i++) {
+                    if (basis[i] < columns)
+                        continue;
+                    for (int j = 0; j < columns; j++) {
+                        if (Math.abs(table[i][j]) > EPSILON) {
+                            pivot(i, j);
+                            break;
+                        }
+                    }
+                }
+
+                // phase 2: the real objective, the artificial variables stay out
+                objective(Arrays.copyOf(c, columns + rows));
+                solved = pivotUntilOptimal(columns);
+            }
+
+            private void objective(final double[] c) {
+                for (int j = 0; j <= columns + rows; j++) {
+                    double value = j < columns + rows ? -c[j] : 0;
+                    for (int i = 0; i < rows; i++) {
+                        value += c[basis[i]] * table[i][j];
+                    }
+                    table[rows][j] = value;
+                }
+            }
+
+            /**
+             * @param entering only columns before this one may enter the basis
+             * @return {@code false} if the objective is unbounded
+             */
+            private boolean pivotUntilOptimal(final int entering) {
+                while (true) {
+                    int column = -1;
+                    for (int j = 0; j < entering; j++) {
+                        if (table[rows][j] < -EPSILON) {
+                            column = j;
+                            break;
+                        }
+                    }
+                    if (column < 0)
+                        return true;
+                    int row = -1;
+                    double ratio = Double.POSITIVE_INFINITY;
+                    for (int i = 0; i < rows; i++) {
+                        if (table[i][column] > EPSILON) {
+                            final double candidate = table[i][columns + rows] / table[i][column];
+                            // Bland's rule: among ties, the basic variable with the smallest index leaves
+                            final boolean tie = candidate < ratio + EPSILON && row >= 0 && basis[i] < basis[row];
+                            if (candidate < ratio - EPSILON || tie) {
+                                ratio = candidate;
+                                row = i;
+                            }
+                        }
+                    }
+                    if (row < 0)
+                        return false;
+                    pivot(row, column);
+                }
+            }
+
+            private void pivot(final int row, final int column) {
+                final double[] pivotRow = table[row];
+                final double factor = pivotRow[column];
+                for (int j = 0; j <= columns + rows; j++) {
+                    pivotRow[j] /= factor;
+                }
+                for (int i = 0; i <= rows; i++) {
+                    final double multiple = table[i][column];
+                    if (i == row || multiple == 0)
+                        continue;
+                    for (int j = 0; j <= columns + rows; j++) {
+                        table[i][j] -= multiple * pivotRow[j];
+                    }
+                }
+                basis[row] = column;
+            }
+
+            boolean isSolved() {
+                return solved;
+            }
+
+            double value() {
+                return table[rows][columns + rows];
+            }
+
+            double solution(final int column) {
+                for (int i = 0; i < rows; i++) {
+                    if (basis[i] == column)
+                        return table[i][columns + rows];
+                }
+                return 0;
+            }
+
+            /**
+             * @return value of the dual variable of the row (for the original sign of the row)
+             */
+            double dual(final int row) {
+                final double value = table[rows][columns + row];
+                return flipped[row] ? -value : value;
+            }
+        }
+
+        private static long gcd(final long a, final long b) {
+            return b == 0 ? a : gcd(b, a % b);
+        }
+
+        private static long score(final long[] sums) {
+            long result = 1;
+            for (long x : sums) {
+                result *= Math.max(0, x);
+            }
+            return result;
+        }
+
+        private static long score(final long[] base, final long[] slope, final long amount) {
+            long result = 1;
+            for (int p = 0; p < PROPERTIES; p++) {
+                result *= Math.max(0, base[p] + amount * slope[p]);
+            }
+            return result;
+        }
     }
 }
 
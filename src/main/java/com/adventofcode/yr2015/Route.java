@@ -0,0 +1,13 @@
+package com.adventofcode.yr2015;
+
+import java.util.List;
+
+/**
+ * A route of {@link Day09} through all of its locations.
+ */
+record Route(List<String> locations, int total_distance) {
+    @Override
+    public String toString() {
+        return "Route: " + total_distance + " = " + String.join(" -> ", locations);
+    }
+}
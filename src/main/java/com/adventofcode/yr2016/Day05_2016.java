@@ -0,0 +1,149 @@
+package com.adventofcode.yr2016;
+
+import org.github.ruderphilipp.SaltedMd5;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+public abstract class Day05_2016 {
+    public static final int PASSWORD_LENGTH = 8;
+    public static final char PLACEHOLDER = '_';
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    /**
+     * A hash indicates the next character in the password if its hexadecimal representation starts with five zeroes.
+     * If it does, the sixth character in the hash is the next character of the password.
+     */
+    public static String getPassword(final String doorId) {
+        Objects.requireNonNull(doorId);
+        final SaltedMd5 md5 = new SaltedMd5(doorId);
+        final StringBuilder sb = new StringBuilder(PASSWORD_LENGTH);
+        while (sb.length() < PASSWORD_LENGTH) {
+            final byte[] hash = md5.digest();
+            if (isInteresting(hash)) {
+                sb.append(HEX[SaltedMd5.nibble(hash, 5)]);
+            }
+            md5.increment();
+        }
+        return sb.toString();
+    }
+
+    /**
+     * The sixth character represents the position (0-7), and the seventh character is the character to put in that
+     * position. Use only the first result for each position, and ignore invalid positions.
+     */
+    public static String getPasswordForDoor2(final String doorId) {
+        return getPasswordForDoor2(doorId, password -> {
+        });
+    }
+
+    /**
+     * Same as {@link #getPasswordForDoor2(String)}, but shows the "decrypting" progress.
+     *
+     * <p>The counters are split into chunks which are searched in parallel. Every worker only collects the interesting
+     * hashes of its chunk; the password is filled by replaying the finished chunks in counter order, so "first result
+     * wins" means exactly the same as for a sequential search. Once all positions are filled, every worker stops.
+     *
+     * @param progress called with the current state of the password (missing characters as {@link #PLACEHOLDER})
+     *                 every time a character falls into place; only called while holding a lock, never from the hot
+     *                 loop
+     */
+    public static String getPasswordForDoor2(final String doorId, final Consumer<String> progress) {
+        Objects.requireNonNull(doorId);
+        Objects.requireNonNull(progress);
+        final Door2Cracker cracker = new Door2Cracker(progress);
+        IntStream.range(0, Runtime.getRuntime().availableProcessors())
+                .parallel()
+                .forEach(worker -> cracker.search(doorId));
+        return cracker.getPassword();
+    }
+
+    private static boolean isInteresting(final byte[] hash) {
+        return SaltedMd5.startsWithZeros(hash, 5);
+    }
+
+    private static class Door2Cracker {
+        /**
+         * number of counters a worker claims at once
+         */
+        private static final int CHUNK_SIZE = 1 << 16;
+
+        private final Consumer<String> progress;
+        private final AtomicLong nextChunk = new AtomicLong(0);
+        private volatile boolean done = false;
+
+        // guarded by "this"
+        private final char[] result = new char[PASSWORD_LENGTH];
+        private int missing = PASSWORD_LENGTH;
+        private long nextChunkToReplay = 0;
+        private final Map<Long, long[]> finishedChunks = new HashMap<>();
+
+        Door2Cracker(final Consumer<String> progress) {
+            this.progress = progress;
+            Arrays.fill(result, PLACEHOLDER);
+        }
+
+        void search(final String doorId) {
+            final SaltedMd5 md5 = new SaltedMd5(doorId);
+            // packed hits of the current chunk, see pack()
+            long[] hits = new long[PASSWORD_LENGTH];
+
+            while (!done) {
+                final long chunk = nextChunk.getAndIncrement();
+                final long start = chunk * CHUNK_SIZE;
+                md5.setCounter(start);
+                int found = 0;
+                for (long counter = start; counter < start + CHUNK_SIZE; counter++, md5.increment()) {
+                    // another worker completed the password
+                    if ((counter & 0xFFF) == 0 && done)
+                        return;
+                    final byte[] hash = md5.digest();
+                    if (!isInteresting(hash))
+                        continue;
+                    final int pos = SaltedMd5.nibble(hash, 5);
+                    if (pos >= PASSWORD_LENGTH)
+                        continue;
+                    if (found == hits.length)
+                        hits = Arrays.copyOf(hits, 2 * found);
+                    hits[found++] = pack(counter, pos, SaltedMd5.nibble(hash, 6));
+                }
+                finished(chunk, Arrays.copyOf(hits, found));
+            }
+        }
+
+        private static long pack(final long counter, final int position, final int character) {
+            return (counter << 8) | ((long) position << 4) | character;
+        }
+
+        private synchronized void finished(final long chunk, final long[] hits) {
+            finishedChunks.put(chunk, hits);
+            // replay everything that is complete up to here in counter order
+            while (missing > 0 && finishedChunks.containsKey(nextChunkToReplay)) {
+                for (long hit : finishedChunks.remove(nextChunkToReplay)) {
+                    final int pos = (int) (hit >>> 4) & 0x0F;
+                    if (result[pos] == PLACEHOLDER) {
+                        result[pos] = HEX[(int) hit & 0x0F];
+                        missing--;
+                        progress.accept(new String(result));
+                        if (missing == 0)
+                            break;
+                    }
+                }
+                nextChunkToReplay++;
+            }
+            if (missing == 0) {
+                done = true;
+                finishedChunks.clear();
+            }
+        }
+
+        synchronized String getPassword() {
+            return new String(result);
+        }
+    }
+}
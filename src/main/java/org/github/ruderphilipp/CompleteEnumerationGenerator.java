@@ -1,65 +1,431 @@
 package org.github.ruderphilipp;
 
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public abstract class CompleteEnumerationGenerator {
+    /**
+     * 20! is the largest factorial that fits into a {@code long}
+     */
+    private static final int MAX_RANKED_SIZE = 20;
+
+    /**
+     * @return all permutations of {@code 0..size-1} in lexicographic order
+     * @see #permutations(int)
+     */
     public static List<int[]> getEnumerations(final int size) {
-        return getEnumerations(size, size).stream()
-                .sorted(Comparator.comparing(Arrays::toString))
+        return streamPermutations(size, false)
+                .map(int[]::clone)
                 .toList();
     }
 
-    private static Set<int[]> getEnumerations(final int maxNumber, final int length) {
-        Set<int[]> result = new HashSet<int[]>();
+    /**
+     * All permutations of {@code 0..size-1} in lexicographic order, computed one after the other.
+     *
+     * <p><b>The returned array is reused for the next permutation</b>, so it must be copied if it is kept.
+     */
+    public static Iterator<int[]> permutations(final int size) {
+        return new PermutationIterator(size);
+    }
 
-        for (int i = 0; i < maxNumber; i++) {
-            if (length == 1) {
-                int[] x = new int[length];
-                x[0] = i;
-                result.add(x);
-            } else {
-                for (int[] elem : getEnumerations(maxNumber, length - 1)) {
-                    // every number only exactly once
-                    if (!contains(elem, i)) {
-                        int[] x = new int[length];
-                        x[0] = i;
-                        System.arraycopy(elem, 0, x, 1, elem.length);
-                        result.add(x);
-                    }
-                }
+    /**
+     * @param parallel if {@code true}, the range of ranks is split in halves for the threads of the stream (the order of
+     *                 the permutations is kept)
+     * @see #permutations(int)
+     * @see #unrank(long, int[])
+     */
+    public static Stream<int[]> streamPermutations(final int size, final boolean parallel) {
+        if (size > MAX_RANKED_SIZE)
+            throw new IllegalArgumentException("too many permutations to count them: " + size + "!");
+        final long count = size > 0 ? factorial(size) : 0;
+        return StreamSupport.stream(new RankSpliterator(Math.max(0, size), 0, count), parallel);
+    }
+
+    /**
+     * Position of the permutation (of {@code 0..n-1}) in lexicographic order, computed via its Lehmer code: for every
+     * position the number of smaller values behind it, as digits of the factorial number system.
+     */
+    public static long rank(final int[] permutation) {
+        final int n = permutation.length;
+        if (n > MAX_RANKED_SIZE)
+            throw new IllegalArgumentException("too many permutations to count them: " + n + "!");
+        long rank = 0;
+        for (int i = 0; i < n; i++) {
+            int smallerBehind = 0;
+            for (int j = i + 1; j < n; j++) {
+                if (permutation[j] < permutation[i])
+                    smallerBehind++;
             }
+            rank = rank * (n - i) + smallerBehind;
+        }
+        return rank;
+    }
+
+    /**
+     * Inverse of {@link #rank(int[])}: writes the permutation with the given rank into the array (its length is
+     * {@code n}).
+     */
+    public static void unrank(final long rank, final int[] into) {
+        final int n = into.length;
+        if (n > MAX_RANKED_SIZE)
+            throw new IllegalArgumentException("too many permutations to count them: " + n + "!");
+        if (rank < 0 || rank >= factorial(n))
+            throw new IllegalArgumentException("no permutation of " + n + " values with rank " + rank);
+
+        // digits of the factorial number system, from the last position to the first
+        long rest = rank;
+        for (int i = n - 1; i >= 0; i--) {
+            final int base = n - i;
+            into[i] = (int) (rest % base);
+            rest /= base;
+        }
+        // every digit picks the n-th smallest value that is still unused
+        boolean[] used = new boolean[n];
+        for (int i = 0; i < n; i++) {
+            int value = -1;
+            for (int skip = into[i]; skip >= 0; skip--) {
+                value++;
+                while (used[value])
+                    value++;
+            }
+            used[value] = true;
+            into[i] = value;
+        }
+    }
+
+    /**
+     * Next permutation in lexicographic order (in place): find the last position whose value is smaller than the one
+     * behind it, swap it with the last value that is larger, then reverse everything behind the position.
+     *
+     * @return {@code false} if this was already the last permutation
+     */
+    static boolean nextPermutation(final int[] values) {
+        int i = values.length - 2;
+        while (i >= 0 && values[i] >= values[i + 1])
+            i--;
+        if (i < 0)
+            return false;
+        int j = values.length - 1;
+        while (values[j] <= values[i])
+            j--;
+        swap(values, i, j);
+        for (int left = i + 1, right = values.length - 1; left < right; left++, right--) {
+            swap(values, left, right);
+        }
+        return true;
+    }
+
+    private static void swap(final int[] values, final int i, final int j) {
+        final int tmp = values[i];
+        values[i] = values[j];
+        values[j] = tmp;
+    }
+
+    /**
+     * @return {@code n!} (only for {@code n <= 20})
+     */
+    static long factorial(final int n) {
+        long result = 1;
+        for (int i = 2; i <= n; i++) {
+            result *= i;
         }
-        result.removeIf(x -> x.length != length);
         return result;
     }
 
-    private static boolean contains(final int[] arr, final int key) {
-        return Arrays.stream(arr).anyMatch(i -> i == key);
+    private static class PermutationIterator implements Iterator<int[]> {
+        private final int[] current;
+        private boolean hasNext;
+        private boolean started = false;
+
+        PermutationIterator(final int size) {
+            current = new int[Math.max(0, size)];
+            for (int i = 0; i < current.length; i++) {
+                current[i] = i;
+            }
+            hasNext = size > 0;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (started && hasNext) {
+                hasNext = nextPermutation(current);
+                started = false;
+            }
+            return hasNext;
+        }
+
+        @Override
+        public int[] next() {
+            if (!hasNext())
+                throw new NoSuchElementException();
+            started = true;
+            return current;
+        }
+    }
+
+    /**
+     * Permutations with a rank in {@code [from, to)}. Splitting halves the range of ranks and the new part starts at its
+     * unranked permutation, so the parts share nothing and can be iterated on different threads.
+     */
+    private static class RankSpliterator implements Spliterator<int[]> {
+        private final int size;
+        private final int[] current;
+        private long from;
+        private final long to;
+        private boolean started = false;
+
+        RankSpliterator(final int size, final long from, final long to) {
+            this.size = size;
+            this.current = new int[size];
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public boolean tryAdvance(final Consumer<? super int[]> action) {
+            if (from >= to)
+                return false;
+            if (started)
+                nextPermutation(current);
+            else
+                unrank(from, current);
+            started = true;
+            from++;
+            action.accept(current);
+            return true;
+        }
+
+        @Override
+        public Spliterator<int[]> trySplit() {
+            final long middle = from + (to - from) / 2;
+            if (middle <= from || started)
+                return null;
+            final var prefix = new RankSpliterator(size, from, middle);
+            from = middle;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return to - from;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | NONNULL | SIZED | SUBSIZED;
+        }
     }
 
+    /**
+     * All ways to put the picks into the buckets (every bucket gets at least one pick).
+     *
+     * @return one map per option: number of the bucket (starting with 0) to the picks in it
+     * @see #forEachComposition(int, int, int, Consumer)
+     */
     public static List<Map<Integer, Integer>> getBucketPicks(int bucket, int totalPicks) {
-        List<Map<Integer, Integer>> result = new LinkedList<>();
-        if (bucket > totalPicks || bucket <= 0 || totalPicks <= 0) {
+        List<Map<Integer, Integer>> result = new ArrayList<>();
+        if (bucket <= 0 || totalPicks <= 0) {
             return result;
         }
+        forEachComposition(bucket, totalPicks, 1, picks -> {
+            Map<Integer, Integer> m = new HashMap<>();
+            for (int i = 0; i < picks.length; i++) {
+                m.put(i, picks[i]);
+            }
+            result.add(m);
+        });
+        return result;
+    }
+
+    /**
+     * Visits all compositions of {@code total} into {@code buckets} parts with at least {@code minimum} in every part
+     * ("stars and bars") in lexicographic order.
+     *
+     * <p><b>The array given to the visitor is reused for the next composition</b>, so it must be copied if it is kept.
+     */
+    public static void forEachComposition(final int buckets, final int total, final int minimum, final Consumer<int[]> visitor) {
+        new CompositionSpliterator(buckets, total, minimum).forEachRemaining(visitor);
+    }
+
+    /**
+     * @param parallel if {@code true}, the compositions are split by the values of the first buckets for the threads of
+     *                 the stream (the order of the compositions is kept)
+     * @see #forEachComposition(int, int, int, Consumer)
+     */
+    public static Stream<int[]> streamCompositions(final int buckets, final int total, final int minimum, final boolean parallel) {
+        return StreamSupport.stream(new CompositionSpliterator(buckets, total, minimum), parallel);
+    }
+
+    /**
+     * @return number of compositions of {@code amount} into {@code parts} parts with at least {@code minimum} in every
+     * part, {@link Long#MAX_VALUE} if there are more
+     */
+    static long countCompositions(final int parts, final long amount, final int minimum) {
+        if (parts <= 0)
+            return amount == 0 ? 1 : 0;
+        final long free = amount - (long) parts * minimum;
+        if (free < 0)
+            return 0;
+        // binomial(free + parts - 1, parts - 1)
+        final int k = parts - 1;
+        long result = 1;
+        for (int i = 1; i <= k; i++) {
+            final long factor = free + i;
+            if (result > Long.MAX_VALUE / factor)
+                return Long.MAX_VALUE;
+            // exact: the product of i consecutive numbers is divisible by i!
+            result = result * factor / i;
+        }
+        return result;
+    }
+
+    /**
+     * Compositions whose first {@code fixed} buckets are given and whose next bucket is in {@code [from, to)}.
+     * Splitting halves that range; if only one value is left, it is fixed and the range of the next bucket is split.
+     */
+    private static class CompositionSpliterator implements Spliterator<int[]> {
+        private final int buckets;
+        private final int minimum;
+        private final int[] current;
+        private int fixed;
+        /**
+         * amount for the buckets from {@link #fixed} on
+         */
+        private int rest;
+        private int from;
+        private int to;
+        private boolean started = false;
+        private long remaining;
+
+        CompositionSpliterator(final int buckets, final int total, final int minimum) {
+            this.buckets = Math.max(0, buckets);
+            this.minimum = minimum;
+            this.current = new int[this.buckets];
+            this.fixed = 0;
+            this.rest = total;
+            if (buckets == 1) {
+                // the only bucket gets everything
+                this.from = total;
+                this.to = total >= minimum ? total + 1 : total;
+            } else {
+                this.from = minimum;
+                this.to = buckets <= 0 ? minimum : maxOfBucket(0, total) + 1;
+            }
+            this.remaining = buckets <= 0 ? 0 : countCompositions(buckets, total, minimum);
+        }
 
-        if (bucket == 1) {
-            result.add(Map.of(0, totalPicks));
+        private CompositionSpliterator(final CompositionSpliterator other, final int from, final int to) {
+            this.buckets = other.buckets;
+            this.minimum = other.minimum;
+            this.current = other.current.clone();
+            this.fixed = other.fixed;
+            this.rest = other.rest;
+            this.from = from;
+            this.to = to;
+            this.remaining = count(from, to);
+        }
+
+        /**
+         * @return largest value of the bucket if the buckets from it on share the amount
+         */
+        private int maxOfBucket(final int bucket, final int amount) {
+            return amount - (buckets - 1 - bucket) * minimum;
+        }
+
+        private long count(final int lo, final int hi) {
+            long result = 0;
+            for (int value = lo; value < hi; value++) {
+                final long c = countCompositions(buckets - 1 - fixed, rest - value, minimum);
+                if (c == Long.MAX_VALUE || result > Long.MAX_VALUE - c)
+                    return Long.MAX_VALUE;
+                result += c;
+            }
             return result;
         }
 
-        var remainingBuckets = bucket - 1;
+        @Override
+        public boolean tryAdvance(final Consumer<? super int[]> action) {
+            if (!(started ? next() : start()))
+                return false;
+            if (remaining != Long.MAX_VALUE)
+                remaining--;
+            action.accept(current);
+            return true;
+        }
 
-        for (int picksInThisBucket = 1; picksInThisBucket <= (totalPicks - remainingBuckets); picksInThisBucket++) {
-            var rest = getBucketPicks(bucket-1, totalPicks-picksInThisBucket);
-            // take the first element (since all have the same number of buckets) and increment to add this at the end
-            int myKey = 1 + rest.get(0).keySet().stream().mapToInt(Integer::intValue).max().orElse(0);
-            for (var x : rest) {
-                Map<Integer, Integer> m = new HashMap<>(x);
-                m.put(myKey, picksInThisBucket);
-                result.add(m);
+        /**
+         * the smallest composition: all free buckets get the minimum, the last one the rest
+         */
+        private boolean start() {
+            if (from >= to)
+                return false;
+            started = true;
+            current[fixed] = from;
+            int left = rest - from;
+            for (int i = fixed + 1; i < buckets - 1; i++) {
+                current[i] = minimum;
+                left -= minimum;
             }
+            if (fixed < buckets - 1)
+                current[buckets - 1] = left;
+            return true;
+        }
+
+        /**
+         * Next composition in lexicographic order: increase the last bucket (before the very last one) whose buckets
+         * behind it have more than their minimum, and give these buckets the smallest values again.
+         */
+        private boolean next() {
+            int behind = current[buckets - 1];
+            for (int i = buckets - 2; i >= fixed; i--) {
+                final int partsBehind = buckets - 1 - i;
+                if (behind > partsBehind * minimum && (i > fixed || current[i] + 1 < to)) {
+                    current[i]++;
+                    behind--;
+                    for (int j = i + 1; j < buckets - 1; j++) {
+                        current[j] = minimum;
+                        behind -= minimum;
+                    }
+                    current[buckets - 1] = behind;
+                    return true;
+                }
+                behind += current[i];
+            }
+            return false;
+        }
+
+        @Override
+        public Spliterator<int[]> trySplit() {
+            if (started)
+                return null;
+            // only one value left for this bucket: fix it and split the next one
+            while (to - from == 1 && fixed < buckets - 2) {
+                current[fixed] = from;
+                rest -= from;
+                fixed++;
+                from = minimum;
+                to = maxOfBucket(fixed, rest) + 1;
+            }
+            if (to - from < 2)
+                return null;
+            final int middle = (from + to) >>> 1;
+            final var prefix = new CompositionSpliterator(this, from, middle);
+            from = middle;
+            remaining = count(from, to);
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return remaining;
+        }
+
+        @Override
+        public int characteristics() {
+            final int sized = remaining == Long.MAX_VALUE ? 0 : SIZED | SUBSIZED;
+            return ORDERED | NONNULL | sized;
         }
-        return result;
     }
 }
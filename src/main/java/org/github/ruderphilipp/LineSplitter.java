@@ -0,0 +1,33 @@
+package org.github.ruderphilipp;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Splits byte ranges of line based input (e.g. a memory mapped file) into two parts without cutting a line in half.
+ */
+public class LineSplitter {
+    public static final int NO_SPLIT = -1;
+
+    private LineSplitter() {
+    }
+
+    /**
+     * Position directly behind the line break ({@code '\n'}) that is the nearest to the middle of the range, first
+     * searching forward and then backward from there.
+     *
+     * @return a position strictly between {@code from} and {@code to}, so that both parts are smaller than the range,
+     * or {@link #NO_SPLIT} if there is no line break before the last byte of the range
+     */
+    public static int split(final ByteBuffer input, final int from, final int to) {
+        final int middle = (from + to) >>> 1;
+        for (int i = Math.max(middle, from + 1); i < to; i++) {
+            if (input.get(i - 1) == '\n')
+                return i;
+        }
+        for (int i = middle - 1; i > from; i--) {
+            if (input.get(i - 1) == '\n')
+                return i;
+        }
+        return NO_SPLIT;
+    }
+}
@@ -0,0 +1,128 @@
+package org.github.ruderphilipp;
+
+import java.util.function.LongConsumer;
+
+/**
+ * Set of primitive {@code long} values with open addressing (linear probing) in one {@code long[]}: no boxing and
+ * no entry objects, so it needs only 8 bytes per slot.
+ *
+ * <p>Not thread-safe.
+ */
+public class LongHashSet {
+    private static final int MAX_CAPACITY = 1 << 30;
+    /**
+     * marks a free slot; the value itself is tracked separately
+     */
+    private static final long FREE = 0L;
+
+    private long[] slots;
+    private int mask;
+    private int size = 0;
+    private boolean containsFree = false;
+    private int resizeAt;
+
+    public LongHashSet() {
+        this(16);
+    }
+
+    public LongHashSet(final int expectedSize) {
+        allocate(capacityFor(expectedSize));
+    }
+
+    private static int capacityFor(final int expectedSize) {
+        // keep the load factor at 3/4 at most
+        final long needed = Math.max(4, (long) expectedSize * 4 / 3 + 1);
+        if (needed > MAX_CAPACITY)
+            return MAX_CAPACITY;
+        return Integer.highestOneBit((int) needed - 1) << 1;
+    }
+
+    private void allocate(final int capacity) {
+        slots = new long[capacity];
+        mask = capacity - 1;
+        resizeAt = capacity == MAX_CAPACITY ? MAX_CAPACITY - 1 : capacity / 4 * 3;
+    }
+
+    private static int hash(final long value) {
+        // finalizer of MurmurHash3, spreads neighboring coordinates over the whole table
+        long h = value;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+
+    /**
+     * @return {@code true} if the value was not contained before
+     */
+    public boolean add(final long value) {
+        if (value == FREE) {
+            if (containsFree)
+                return false;
+            containsFree = true;
+            size++;
+            return true;
+        }
+        int i = hash(value) & mask;
+        while (slots[i] != FREE) {
+            if (slots[i] == value)
+                return false;
+            i = (i + 1) & mask;
+        }
+        slots[i] = value;
+        size++;
+        if (size >= resizeAt)
+            grow();
+        return true;
+    }
+
+    public boolean contains(final long value) {
+        if (value == FREE)
+            return containsFree;
+        int i = hash(value) & mask;
+        while (slots[i] != FREE) {
+            if (slots[i] == value)
+                return true;
+            i = (i + 1) & mask;
+        }
+        return false;
+    }
+
+    public void addAll(final LongHashSet other) {
+        other.forEach(this::add);
+    }
+
+    public void forEach(final LongConsumer action) {
+        if (containsFree)
+            action.accept(FREE);
+        for (final long value : slots) {
+            if (value != FREE)
+                action.accept(value);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    private void grow() {
+        if (slots.length == MAX_CAPACITY)
+            throw new IllegalStateException("set is full with " + size + " elements");
+        final long[] old = slots;
+        allocate(old.length << 1);
+        for (final long value : old) {
+            if (value == FREE)
+                continue;
+            int i = hash(value) & mask;
+            while (slots[i] != FREE)
+                i = (i + 1) & mask;
+            slots[i] = value;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package org.github.ruderphilipp;
+
+import java.nio.charset.StandardCharsets;
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * MD5 over {@code salt + counter} for puzzles that count up until the hash looks right (2015.Day04, 2016.Day05).
+ *
+ * <p>The salt is only converted once: all of its complete 64 byte blocks are absorbed into a prototype digest that
+ * gets cloned per attempt, the remaining tail sits in front of the counter digits in one reusable input buffer. The
+ * counter itself is kept as decimal digits and incremented in place, so no {@code String} is built per attempt.
+ *
+ * <p>Not thread-safe: use one instance per thread.
+ */
+public class SaltedMd5 {
+    public static final int LENGTH = 16;
+    private static final int BLOCK_SIZE = 64;
+    // Long.MAX_VALUE has 19 digits
+    private static final int MAX_DIGITS = 19;
+
+    /**
+     * digest state after the full blocks of the salt, {@code null} if the salt is shorter than one block
+     */
+    private final MessageDigest prototype;
+    private MessageDigest md5;
+    private final byte[] input;
+    private final int digitsStart;
+    private int digitsEnd;
+    private final byte[] digest = new byte[LENGTH];
+    private long counter;
+
+    public SaltedMd5(final String salt) {
+        this(salt, 0);
+    }
+
+    public SaltedMd5(final String salt, final long firstCounter) {
+        final byte[] saltBytes = salt.getBytes(StandardCharsets.UTF_8);
+        final int absorbed = saltBytes.length - (saltBytes.length % BLOCK_SIZE);
+        final MessageDigest start = newMd5();
+        if (absorbed > 0) {
+            start.update(saltBytes, 0, absorbed);
+            prototype = start;
+        } else {
+            prototype = null;
+            md5 = start;
+        }
+
+        digitsStart = saltBytes.length - absorbed;
+        input = new byte[digitsStart + MAX_DIGITS];
+        System.arraycopy(saltBytes, absorbed, input, 0, digitsStart);
+        setCounter(firstCounter);
+    }
+
+    private static MessageDigest newMd5() {
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public long getCounter() {
+        return counter;
+    }
+
+    public void setCounter(final long value) {
+        if (value < 0)
+            throw new IllegalArgumentException("only positive counters are allowed, but was: " + value);
+        counter = value;
+        final String digits = Long.toString(value);
+        for (int i = 0; i < digits.length(); i++) {
+            input[digitsStart + i] = (byte) digits.charAt(i);
+        }
+        digitsEnd = digitsStart + digits.length();
+    }
+
+    /**
+     * Count up by one directly on the decimal digits, e.g. "129" -&gt; "130" or "999" -&gt; "1000".
+     */
+    public void increment() {
+        if (counter == Long.MAX_VALUE)
+            throw new ArithmeticException("counter overflow");
+        counter++;
+        int i = digitsEnd - 1;
+        while (i >= digitsStart && input[i] == '9') {
+            input[i] = '0';
+            i--;
+        }
+        if (i >= digitsStart) {
+            input[i]++;
+        } else {
+            // all nines: one more digit ("1" followed by only zeros)
+            input[digitsStart] = '1';
+            input[digitsEnd] = '0';
+            digitsEnd++;
+        }
+    }
+
+    /**
+     * Hash salt and current counter.
+     *
+     * @return the raw digest; the array is reused by the next call
+     */
+    public byte[] digest() {
+        if (prototype != null) {
+            try {
+                md5 = (MessageDigest) prototype.clone();
+            } catch (CloneNotSupportedException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        md5.update(input, 0, digitsEnd);
+        try {
+            md5.digest(digest, 0, LENGTH);
+        } catch (DigestException e) {
+            throw new IllegalStateException(e);
+        }
+        return digest;
+    }
+
+    /**
+     * @return the hex digit at {@code index} of the hexadecimal representation of the digest
+     */
+    public static int nibble(final byte[] digest, final int index) {
+        final int b = digest[index >>> 1];
+        return (index & 1) == 0 ? (b >>> 4) & 0x0F : b & 0x0F;
+    }
+
+    /**
+     * Check for leading zeros in the hexadecimal representation without creating it: every hex digit is one nibble, so
+     * compare whole bytes first and the upper half of the next byte for an odd number of zeros.
+     */
+    public static boolean startsWithZeros(final byte[] digest, final int zeros) {
+        final int fullBytes = zeros >>> 1;
+        for (int i = 0; i < fullBytes; i++) {
+            if (digest[i] != 0)
+                return false;
+        }
+        return (zeros & 1) == 0 || (digest[fullBytes] & 0xF0) == 0;
+    }
+}
@@ -6,7 +6,12 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 
 import java.io.IOException;
+import java.io.StringReader;
 import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -59,6 +64,46 @@ public class Day01Test {
         assertThat(Day01.findBasement(input)).as("'%s' -> %d", input, expected).isEqualTo(expected);
     }
 
+    @ParameterizedTest
+    @CsvSource({"), 1, -1", "()()), 5, -1", "(((, 0, 3", "(())))((, 5, 0"})
+    void testStreamingInputs(String input, long basement, long floor) throws IOException {
+        var expected = new Floors(floor, basement);
+        assertThat(Day01.walk(input)).isEqualTo(expected);
+        assertThat(Day01.walk(input.getBytes(StandardCharsets.US_ASCII))).isEqualTo(expected);
+        assertThat(Day01.walk(ByteBuffer.wrap(input.getBytes(StandardCharsets.US_ASCII)))).isEqualTo(expected);
+        assertThat(Day01.walk(new StringReader(input))).isEqualTo(expected);
+    }
+
+    @Test
+    void testParallelScan() {
+        // several chunks going up, then down into the basement in the last (partial) chunk
+        int up = 3_000_000;
+        byte[] input = new byte[2 * up + 10];
+        Arrays.fill(input, 0, up, (byte) '(');
+        Arrays.fill(input, up, input.length, (byte) ')');
+        var expected = new Floors(-10, 2L * up + 1);
+        assertThat(Day01.walk(input)).isEqualTo(expected);
+        assertThat(Day01.walkParallel(input)).isEqualTo(expected);
+
+        var random = new Random(2015_01);
+        for (int i = 0; i < input.length; i++) {
+            input[i] = (byte) (random.nextBoolean() ? '(' : ')');
+        }
+        assertThat(Day01.walkParallel(input)).isEqualTo(Day01.walk(input));
+    }
+
+    @Test
+    void parallelScanWithChunksNearIntLimit() {
+        // a chunk size near Integer.MAX_VALUE behaves like an input near 2 GiB: the chunk arithmetic must not overflow
+        var input = ByteBuffer.wrap("x(()))((".getBytes(StandardCharsets.US_ASCII));
+        input.position(1);
+        var expected = new Floors(1, 5);
+        assertThat(Day01.walk(input)).isEqualTo(expected);
+        assertThat(Day01.walkParallel(input, Integer.MAX_VALUE)).isEqualTo(expected);
+        assertThat(Day01.walkParallel(input, Integer.MAX_VALUE - 3)).isEqualTo(expected);
+        assertThat(Day01.walkParallel(input, 2)).isEqualTo(expected);
+    }
+
     @Test
     void riddle02() {
         String fileName = "2015_01.txt";
@@ -5,9 +5,13 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Random;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 public class Day02Test {
     /**
@@ -95,4 +99,49 @@ public class Day02Test {
         var lines = FileHelper.getFileContent(fileName);
         assertThat(Day02.getRibbonLengthWithBow(lines)).isEqualTo(3737498);
     }
+
+    @Test
+    void bothInOnePass() {
+        var input = "2x3x4\r\n1x1x10\n".getBytes(StandardCharsets.US_ASCII);
+        assertThat(Day02.getWrapping(input)).isEqualTo(new Wrapping(58 + 43, 34 + 14));
+    }
+
+    @Test
+    void bothInOnePass_riddle() {
+        String fileName = "2015_02.txt";
+        var lines = FileHelper.getFileContent(fileName);
+        var input = String.join("\n", lines).getBytes(StandardCharsets.US_ASCII);
+        var expected = new Wrapping(1586300, 3737498);
+        assertThat(Day02.getWrapping(input)).isEqualTo(expected);
+        assertThat(Day02.getWrappingParallel(ByteBuffer.wrap(input))).isEqualTo(expected);
+    }
+
+    @Test
+    void parallelSameAsSequential() {
+        var random = new Random(2015_02);
+        var sb = new StringBuilder();
+        for (int i = 0; i < 500_000; i++) {
+            sb.append(1 + random.nextInt(30)).append('x').append(1 + random.nextInt(30)).append('x').append(1 + random.nextInt(30)).append('\n');
+        }
+        var input = sb.toString().getBytes(StandardCharsets.US_ASCII);
+        assertThat(Day02.getWrappingParallel(ByteBuffer.wrap(input))).isEqualTo(Day02.getWrapping(input));
+    }
+
+    @Test
+    void parallelWithoutLineBreaks() {
+        // larger than one task, but cannot be split at a line break
+        var input = "1x".repeat(1 << 20).getBytes(StandardCharsets.US_ASCII);
+        assertThatThrownBy(() -> Day02.getWrappingParallel(ByteBuffer.wrap(input)))
+                .isInstanceOf(IllegalArgumentException.class);
+        var present = ("1x1x" + "0".repeat(3 << 20) + "1\n").getBytes(StandardCharsets.US_ASCII);
+        assertThat(Day02.getWrappingParallel(ByteBuffer.wrap(present))).isEqualTo(new Wrapping(7, 5));
+    }
+
+    @Test
+    void numberTooLarge() {
+        var input = "1x1x2147483648\n".getBytes(StandardCharsets.US_ASCII);
+        assertThatThrownBy(() -> Day02.getWrapping(input)).isInstanceOf(IllegalArgumentException.class);
+        var largest = "1x1x2147483647\n".getBytes(StandardCharsets.US_ASCII);
+        assertThat(Day02.getWrapping(largest).ribbon()).isEqualTo(4 + 2147483647L);
+    }
 }
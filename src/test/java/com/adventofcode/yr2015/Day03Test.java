@@ -5,6 +5,8 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 
+import java.util.Random;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 public class Day03Test {
@@ -95,4 +97,30 @@ public class Day03Test {
         assertThat(Day03.countHousesWithRoboSanta(lines.get(0))).isLessThan(2837); // erster Versuch (Rückmeldung: zu hoch)
         assertThat(Day03.countHousesWithRoboSanta(lines.get(0))).isEqualTo(2639);
     }
+
+    @Test
+    void severalDeliverers_riddle() {
+        assertThat(Day03.countHouses(FileHelper.getFileContent("2015_03.txt").get(0), 1)).isEqualTo(2565);
+        assertThat(Day03.countHouses(FileHelper.getFileContent("day03.txt").get(0), 2)).isEqualTo(2639);
+    }
+
+    @Test
+    void deliverersTakeTurns() {
+        // each of the three deliverers goes north twice, so they all visit the same houses
+        assertThat(Day03.countHouses("^^^^^^", 3)).isEqualTo(3);
+        assertThat(Day03.countHouses("^>v^>v", 3)).isEqualTo(1 + 3 * 2);
+        assertThat(Day03.countHouses("^v^v^v", 1)).isEqualTo(2);
+        assertThat(Day03.countHouses("", 4)).isEqualTo(1);
+    }
+
+    @ParameterizedTest
+    @CsvSource({"1", "2", "3", "7", "50"})
+    void parallelSameAsSequential(int deliverers) {
+        var random = new Random(2015_03);
+        var moves = "^v<>";
+        var input = new StringBuilder();
+        for (int i = 0; i < 10_000; i++)
+            input.append(moves.charAt(random.nextInt(moves.length())));
+        assertThat(Day03.countHousesParallel(input, deliverers)).isEqualTo(Day03.countHouses(input, deliverers));
+    }
 }
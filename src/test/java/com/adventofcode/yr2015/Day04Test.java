@@ -38,6 +38,16 @@ public class Day04Test {
     void hasFiveZeros(String input, boolean expected) {
         assertThat(Day04.beginsWithZeros(input, 5)).isEqualTo(expected);
     }
+
+    @ParameterizedTest
+    @CsvSource({"00000f00, 5, true", "000000f0, 5, true", "00001f00, 5, false", "000000f0, 6, true", "00000f00, 6, false", "0f000000, 1, true", "00000000, 8, false" /*no rest*/})
+    void hasZerosInRawDigest(String hex, int zeros, boolean expected) {
+        byte[] digest = new byte[hex.length() / 2];
+        for (int i = 0; i < digest.length; i++) {
+            digest[i] = (byte) Integer.parseInt(hex.substring(2 * i, 2 * i + 2), 16);
+        }
+        assertThat(Day04.beginsWithZeros(digest, zeros)).isEqualTo(expected);
+    }
     //endregion
 
     @Test
@@ -2,9 +2,16 @@ package com.adventofcode.yr2015;
 
 import org.github.ruderphilipp.FileHelper;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 public class Day05Test {
@@ -115,4 +122,66 @@ public class Day05Test {
         }
         assertThat(count).isEqualTo(55);
     }
+
+    @Test
+    void classifierSameAsSingleRules() {
+        var random = new Random(2015_05);
+        var sut = new Day05.Classifier();
+        for (int i = 0; i < 10_000; i++) {
+            var sb = new StringBuilder();
+            int length = random.nextInt(20);
+            for (int j = 0; j < length; j++) {
+                // only a few letters, so that all rules are hit now and then
+                sb.append("abcdeixypq".charAt(random.nextInt(10)));
+            }
+            var input = sb.toString();
+            int failed = sut.classify(input);
+            assertThat((failed & Day05.Classifier.VOWELS) == 0).as(input).isEqualTo(Day05.containsVowels(input, 3));
+            assertThat((failed & Day05.Classifier.DOUBLE_LETTER) == 0).as(input).isEqualTo(Day05.containsRepeatedLetter(input, 2));
+            assertThat((failed & Day05.Classifier.FORBIDDEN_STRING) != 0).as(input).isEqualTo(Day05.containsForbiddenStrings(input));
+            assertThat((failed & Day05.Classifier.PAIR_TWICE) == 0).as(input).isEqualTo(Day05.hasTwoLettersThatAppearTwice(input));
+            assertThat((failed & Day05.Classifier.REPEAT_WITH_ONE_BETWEEN) == 0).as(input).isEqualTo(Day05.containsLetterWithRepeatedLetterBetween(input));
+        }
+    }
+
+    @ParameterizedTest
+    @CsvSource({"AAEEIIx, true", "aeiOUab, false", "xyXY, false", "aa-bc-aa, true"})
+    void notOnlyLowercaseLetters(String input, boolean expected) {
+        assertThat(new Day05.Classifier().classify(input)).isEqualTo(Day05.Classifier.NOT_LOWERCASE);
+        // the single rules still do the job
+        assertThat(Day05.isNice_1(input) || Day05.isNice_2(input)).isEqualTo(expected);
+    }
+
+    @Test
+    void classifyFile(@TempDir Path dir) throws IOException {
+        var file = dir.resolve("2015_05.txt");
+        // all examples of both parts, one empty line, Windows line breaks and a word with uppercase letters
+        Files.writeString(file, String.join("\r\n", "ugknbfddgicrmopn", "aaa", "jchzalrnumimnmhp", "haegwjzuvuyypxyu",
+                "dvszwmarrgswjxmb", "", "qjhvhtzxzqqjkmpb", "xxyxx", "uurcxstgmygtbstg", "ieodomkazucvgmuy", "AAEEIIx"));
+
+        var result = Day05.classify(file);
+        assertThat(result.words()).isEqualTo(10);
+        assertThat(result.nice1()).isEqualTo(3);
+        assertThat(result.nice2()).isEqualTo(2);
+        assertThat(result.withForbiddenString()).isEqualTo(2);
+        assertThat(result.withoutRepeatWithOneBetween()).isEqualTo(4);
+    }
+
+    @Test
+    void classifySameAsSingleWords() {
+        var lines = FileHelper.getFileContent("2015_05.txt");
+        var result = Day05.classify(ByteBuffer.wrap(String.join("\n", lines).getBytes()));
+        assertThat(result.nice1()).isEqualTo(255);
+        assertThat(result.nice2()).isEqualTo(55);
+    }
+
+    @Test
+    void classifyWordLongerThanHalfTheInput() {
+        // larger than one task, the only line break is before the middle
+        var input = ("aaa\n" + "xy".repeat(1 << 20)).getBytes();
+        var result = Day05.classify(ByteBuffer.wrap(input));
+        assertThat(result.words()).isEqualTo(2);
+        assertThat(result.nice1()).isEqualTo(1);
+        assertThat(result.nice2()).isEqualTo(1);
+    }
 }
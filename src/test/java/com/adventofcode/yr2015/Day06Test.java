@@ -2,10 +2,19 @@ package com.adventofcode.yr2015;
 
 import org.github.ruderphilipp.FileHelper;
 import org.junit.jupiter.api.Test;
-
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 public class Day06Test {
     /**
@@ -46,6 +55,43 @@ public class Day06Test {
         scenario_1(new Day06WithList());
     }
 
+    @Test
+    void test01c() {
+        scenario_1(new Day06WithBitSet(1000, 1000));
+    }
+
+    @Test
+    void test01d() {
+        scenario_1(new Day06WithCompression(false));
+    }
+
+    @Test
+    void bitSetSameAsArray() {
+        // width is no multiple of 64, so that the masks at both ends of a row are used
+        var withArray = new Day06WithArray(150, 150);
+        var withBitSet = new Day06WithBitSet(150, 150);
+        for (String line : randomInstructions(500, 150)) {
+            withArray.parse(line);
+            withBitSet.parse(line);
+            assertThat(withBitSet.getNumberOfLights()).as(line).isEqualTo(withArray.getNumberOfLights());
+        }
+    }
+
+    /**
+     * @return the given number of random instructions on a square grid with the given edge length
+     */
+    private static List<String> randomInstructions(final int count, final int size) {
+        var random = new Random(2015_06);
+        var commands = List.of("turn on", "turn off", "toggle");
+        List<String> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int x1 = random.nextInt(size), x2 = x1 + random.nextInt(size - x1);
+            int y1 = random.nextInt(size), y2 = y1 + random.nextInt(size - y1);
+            result.add(commands.get(random.nextInt(3)) + " " + x1 + "," + y1 + " through " + x2 + "," + y2);
+        }
+        return result;
+    }
+
     private void scenario_1(final Day06 sut) {
         // turn on (or leave on) every light
         sut.parse("turn on 0,0 through 999,999");
@@ -75,6 +121,12 @@ public class Day06Test {
 
         //assertThat(withArray).isEqualTo(withList);
         assertThat(withArray).isEqualTo(543903);
+        assertThat(scenario_2(new Day06WithBitSet(1000, 1000), lines)).isEqualTo(543903);
+        assertThat(scenario_2(new Day06WithCompression(false), lines)).isEqualTo(543903);
+
+        var striped = new Day06WithArray(1000, 1000);
+        striped.parseAll(lines);
+        assertThat(striped.getNumberOfLights()).isEqualTo(543903);
     }
 
     private int scenario_2(final Day06 sut, final List<String> lines) {
@@ -128,5 +180,70 @@ public class Day06Test {
         for (String line : lines)
             sut.parse(line);
         assertThat(sut.getBrightness()).isEqualTo(14687245);
+
+        final Day06WithCompression compressed = new Day06WithCompression(true);
+        for (String line : lines)
+            compressed.parse(line);
+        assertThat(compressed.getBrightness()).isEqualTo(14687245);
+    }
+
+    @Test
+    void compressionSameAsArray() {
+        var withArray = new Day06WithArrayWithBrightness(200, 200);
+        var compressed = new Day06WithCompression(true);
+        for (String line : randomInstructions(200, 200)) {
+            withArray.parse(line);
+            compressed.parse(line);
+            assertThat(compressed.getNumberOfLights()).as(line).isEqualTo(withArray.getNumberOfLights());
+            assertThat(compressed.getBrightness()).as(line).isEqualTo(withArray.getBrightness());
+        }
+    }
+
+    @Test
+    void parseAllSameAsParse() {
+        var lines = randomInstructions(300, 500);
+
+        var striped = new Day06WithArray(500, 500);
+        striped.parseAll(lines);
+        assertThat(striped.getNumberOfLights()).isEqualTo(scenario_2(new Day06WithArray(500, 500), lines));
+
+        var stripedBitSet = new Day06WithBitSet(500, 500);
+        stripedBitSet.parseAll(lines);
+        assertThat(stripedBitSet.getNumberOfLights()).isEqualTo(striped.getNumberOfLights());
+
+        var stripedBrightness = new Day06WithArrayWithBrightness(500, 500);
+        stripedBrightness.parseAll(lines);
+        var sequential = new Day06WithArrayWithBrightness(500, 500);
+        for (String line : lines)
+            sequential.parse(line);
+        assertThat(stripedBrightness.getBrightness()).isEqualTo(sequential.getBrightness());
+    }
+
+    @Test
+    void parseAllFromFile(@TempDir Path dir) throws IOException {
+        var file = dir.resolve("2015_06.txt");
+        // Windows line breaks and no line break at the end
+        Files.writeString(file, "turn on 0,0 through 999,999\r\ntoggle 0,0 through 999,0\r\nturn off 499,499 through 500,500");
+
+        var sut = new Day06WithBitSet(1000, 1000);
+        sut.parseAll(file);
+        assertThat(sut.getNumberOfLights()).isEqualTo(1000 * 1000 - 1000 - 4);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "blink 0,0 through 1,1", "turn onn 0,0 through 1,1", "turn on 0,0 thru 1,1", "toggle 0 through 1,1", "toggle 0,0 through 1,1 and more"})
+    void invalidInstructions(String line) {
+        var sut = new Day06WithArray(10, 10);
+        assertThatThrownBy(() -> sut.parse(line)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void compressionOnHugeGrid() {
+        var sut = new Day06WithCompression(true);
+        sut.parse("turn on 0,0 through 1999999,999999");
+        sut.parse("toggle 1000000,0 through 1999999,999999");
+        sut.parse("turn off 0,0 through 999999,999999");
+        assertThat(sut.countLights()).isEqualTo(1_000_000L * 1_000_000L);
+        assertThat(sut.getBrightness()).isEqualTo(3 * 1_000_000L * 1_000_000L);
     }
 }
@@ -7,8 +7,12 @@ import org.junit.jupiter.params.provider.CsvSource;
 
 import java.io.IOException;
 import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 public class Day07Test {
     /**
@@ -74,6 +78,73 @@ public class Day07Test {
         assertThat(sut.get(wire).get()).isEqualTo(signal);
     }
 
+    @ParameterizedTest
+    @CsvSource({"d, 72", "e, 507", "f, 492", "g, 114", "h, 65412", "i, 65079", "x, 123", "y, 456"})
+    void test01b(String wire, Integer signal) {
+        // same circuit, but upside down
+        String[] input = {"NOT y -> i", "NOT x -> h", "y RSHIFT 2 -> g", "x LSHIFT 2 -> f", "x OR y -> e",
+                "x AND y -> d", "456 -> y", "123 -> x"};
+        Day07WithGraph sut = new Day07WithGraph();
+        sut.parse(input);
+        assertThat(sut.get(wire)).contains(signal);
+    }
+
+    @Test
+    void graphWithoutSignal() {
+        Day07WithGraph sut = new Day07WithGraph();
+        sut.parse("x AND y -> z", "1 -> x", "a -> b", "b -> a");
+        // y is never provided and a/b are a loop
+        assertThat(sut.get("z")).isEmpty();
+        assertThat(sut.get("a")).isEmpty();
+        assertThat(sut.get("x")).contains(1);
+    }
+
+    @Test
+    void graphOverride() {
+        Day07WithGraph sut = new Day07WithGraph();
+        sut.parse("123 -> x", "456 -> y", "x AND y -> d", "x OR y -> e", "d OR e -> f", "7 -> q", "q -> r");
+        assertThat(sut.get("f")).contains(507);
+        assertThat(sut.get("r")).contains(7);
+
+        sut.override("y", 1);
+        // only the downstream wires of y are forgotten
+        assertThat(sut.isEvaluated("f")).isFalse();
+        assertThat(sut.isEvaluated("d")).isFalse();
+        assertThat(sut.isEvaluated("x")).isTrue();
+        assertThat(sut.isEvaluated("r")).isTrue();
+        assertThat(sut.get("f")).contains(123);
+
+        // replacing a gate works the same way
+        sut.parse("q AND x -> d");
+        assertThat(sut.isEvaluated("e")).isTrue();
+        assertThat(sut.get("d")).contains(3);
+
+        sut.override(Map.of("x", 0, "q", 0));
+        assertThat(sut.get("f")).contains(1);
+        assertThat(sut.get("r")).contains(0);
+    }
+
+    @ParameterizedTest
+    @CsvSource({"65536 -> x", "x AND 70000 -> y", "99999999999 -> x"})
+    void graphRejectsTooLargeSignals(String line) {
+        Day07WithGraph sut = new Day07WithGraph();
+        assertThatThrownBy(() -> sut.parse(line)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void graphWithLongChain() {
+        List<String> input = new ArrayList<>();
+        input.add("1 -> w0");
+        for (int i = 0; i < 100_000; i++) {
+            input.add("w" + i + " LSHIFT 1 -> w" + (i + 1));
+        }
+        Day07WithGraph sut = new Day07WithGraph();
+        sut.parse(input);
+        assertThat(sut.get("w15")).contains(1 << 15);
+        // 16-bit signals: everything was shifted out
+        assertThat(sut.get("w100000")).contains(0);
+    }
+
     @Test
         // What signal is ultimately provided to wire a?
     void riddle01() throws IOException, URISyntaxException {
@@ -85,6 +156,10 @@ public class Day07Test {
         var result = sut.get("a");
         assertThat(result).isPresent();
         assertThat(result.get()).isEqualTo(46065);
+
+        Day07WithGraph graph = new Day07WithGraph();
+        graph.parse(lines);
+        assertThat(graph.get("a")).contains(46065);
     }
 
     @Test
@@ -104,4 +179,14 @@ public class Day07Test {
         assertThat(result).isPresent();
         assertThat(result.get()).isEqualTo(14134);
     }
+
+    @Test
+    void riddle02_withOverride() {
+        String fileName = "2015_07.txt";
+        var lines = FileHelper.getFileContent(fileName);
+        Day07WithGraph sut = new Day07WithGraph();
+        sut.parse(lines);
+        sut.override("b", sut.get("a").orElseThrow());
+        assertThat(sut.get("a")).contains(14134);
+    }
 }
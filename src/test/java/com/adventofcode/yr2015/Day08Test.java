@@ -4,8 +4,12 @@ import org.github.ruderphilipp.FileHelper;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.charset.StandardCharsets;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 public class Day08Test {
     private final String[] example_input = new String[]{"\"\"", "\"abc\"", "\"aaa\\\"aaa\"", "\"\\x27\""};
@@ -143,4 +147,26 @@ public class Day08Test {
     void test02_encoding(String input, String expected) {
         assertThat(Day08.encode(input)).isEqualTo(expected);
     }
+
+    @Test
+    void allLengthsInOneScan() {
+        var result = Day08.analyze(String.join("\n", example_input).getBytes(StandardCharsets.US_ASCII));
+        assertThat(result.code()).isEqualTo(23);
+        assertThat(result.memory()).isEqualTo(11);
+        assertThat(result.encoded()).isEqualTo(42);
+    }
+
+    @Test
+    void allLengthsInOneScan_riddle() {
+        var lines = FileHelper.getFileContent("2015_08.txt");
+        var result = Day08.analyze(String.join("\r\n", lines));
+        assertThat(result.code() - result.memory()).isEqualTo(1342);
+        assertThat(result.encoded() - result.code()).isEqualTo(2074);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"abc", "\"abc", "\"\\q\"", "\"\\x4g\""})
+    void invalidLiterals(String input) {
+        assertThatThrownBy(() -> Day08.analyze(input)).isInstanceOf(IllegalArgumentException.class);
+    }
 }
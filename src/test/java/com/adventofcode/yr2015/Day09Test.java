@@ -4,9 +4,13 @@ import org.github.ruderphilipp.CompleteEnumerationGenerator;
 import org.github.ruderphilipp.FileHelper;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Random;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 public class Day09Test {
     private final static String[] example_input = {"London to Dublin = 464", "London to Belfast = 518", "Dublin to Belfast = 141"};
@@ -65,7 +69,7 @@ public class Day09Test {
         assertThat(shortest).isPresent();
         var short_route = shortest.get();
         assertThat(short_route.total_distance()).isEqualTo(605);
-        assertThat(short_route.locations()).containsExactly("London", "Dublin", "Belfast");
+        assertThatLocationsInEitherDirection(short_route, "London", "Dublin", "Belfast");
     }
 
     /**
@@ -89,7 +93,132 @@ public class Day09Test {
         var longest = sut.getLongestRoute();
         assertThat(longest).isPresent();
         var long_route = longest.get();
-        assertThat(long_route.locations()).containsExactly("Faerun", "Norrath", "Tambi", "Straylight", "Snowdin", "Tristram", "Arbre", "AlphaCentauri");
+        assertThatLocationsInEitherDirection(long_route, "Faerun", "Norrath", "Tambi", "Straylight", "Snowdin", "Tristram", "Arbre", "AlphaCentauri");
         assertThat(long_route.total_distance()).isEqualTo(736);
     }
+
+    @Test
+    void test02_example() {
+        Day09 sut = new Day09(example_input);
+        var longest = sut.getLongestRoute();
+        assertThat(longest).isPresent();
+        assertThat(longest.get().total_distance()).isEqualTo(982);
+        assertThat(longest.get().locations()).containsExactly("Belfast", "London", "Dublin");
+    }
+
+    @Test
+    void missingDistancesAreNotTraversable() {
+        // no way from Dublin to Belfast, so London has to be in the middle
+        Day09 sut = new Day09("London to Dublin = 464", "London to Belfast = 518");
+        assertThat(sut.getShortestRoute().map(Route::total_distance)).contains(982);
+        assertThat(sut.getShortestRoute().get().locations()).containsExactly("Belfast", "London", "Dublin");
+
+        // Paris is not connected at all
+        Day09 unreachable = new Day09("London to Dublin = 464", "Paris to Paris = 0");
+        assertThat(unreachable.getShortestRoute()).isEmpty();
+        assertThat(unreachable.getLongestRoute()).isEmpty();
+    }
+
+    @Test
+    void moreLocationsThanFitIntoTheTable() {
+        // 22 locations on a line
+        List<String> lines = new ArrayList<>();
+        for (int a = 0; a < 22; a++) {
+            for (int b = a + 1; b < 22; b++) {
+                lines.add("L" + (char) ('a' + a) + " to L" + (char) ('a' + b) + " = " + (b - a));
+            }
+        }
+        var shortest = new Day09(lines).getShortestRoute();
+        assertThat(shortest.map(Route::total_distance)).contains(21);
+        assertThat(shortest.get().locations()).startsWith("La", "Lb").endsWith("Lu", "Lv");
+    }
+
+    @Test
+    void branchAndBound_example() {
+        var sut = new Day09WithBranchAndBound(example_input);
+        assertThat(sut.getShortestRoute().map(Route::total_distance)).contains(605);
+        assertThat(sut.getShortestRoute().get().locations()).containsExactly("Belfast", "Dublin", "London");
+        assertThat(sut.getLongestRoute().map(Route::total_distance)).contains(982);
+
+        var statistics = sut.getStatistics();
+        assertThat(statistics).isPresent();
+        assertThat(statistics.get().nodes()).isPositive();
+        assertThat(statistics.get().nanosToFirstSolution()).isBetween(0L, statistics.get().nanos());
+    }
+
+    @Test
+    void branchAndBoundSameAsHeldKarp() {
+        var random = new Random(2015_09);
+        for (int i = 0; i < 50; i++) {
+            int n = 2 + random.nextInt(9);
+            List<String> lines = new ArrayList<>();
+            for (int a = 0; a < n; a++) {
+                for (int b = a + 1; b < n; b++) {
+                    // some distances are missing
+                    if (random.nextInt(10) < 8)
+                        lines.add("L" + (char) ('a' + a) + " to L" + (char) ('a' + b) + " = " + (1 + random.nextInt(100)));
+                }
+            }
+            var expected = new Day09(lines);
+            var sut = new Day09WithBranchAndBound(lines);
+            assertThat(sut.getShortestRoute().map(Route::total_distance)).as(lines.toString())
+                    .isEqualTo(expected.getShortestRoute().map(Route::total_distance));
+            assertThat(sut.getLongestRoute().map(Route::total_distance)).as(lines.toString())
+                    .isEqualTo(expected.getLongestRoute().map(Route::total_distance));
+        }
+    }
+
+    @Test
+    void branchAndBound_riddle() {
+        var lines = FileHelper.getFileContent("2015_09.txt");
+        var sut = new Day09WithBranchAndBound(lines);
+        assertThat(sut.getShortestRoute().map(Route::total_distance)).contains(141);
+        assertThat(sut.getLongestRoute().map(Route::total_distance)).contains(736);
+
+        var statistics = sut.getStatistics().orElseThrow();
+        assertThat(statistics.nodes()).isPositive();
+        assertThat(statistics.nanosToFirstSolution()).isBetween(0L, statistics.nanos());
+    }
+
+    @Test
+    void branchAndBoundSameRouteAsHeldKarp() {
+        // only a few different distances, so there are many routes with the same distance
+        var random = new Random(2015_0909);
+        for (int i = 0; i < 30; i++) {
+            int n = 2 + random.nextInt(8);
+            List<String> lines = new ArrayList<>();
+            for (int a = 0; a < n; a++) {
+                for (int b = a + 1; b < n; b++) {
+                    lines.add("L" + (char) ('a' + a) + " to L" + (char) ('a' + b) + " = " + (1 + random.nextInt(3)));
+                }
+            }
+            var expected = new Day09(lines);
+            var sut = new Day09WithBranchAndBound(lines);
+            assertThat(sut.getShortestRoute()).as(lines.toString()).isEqualTo(expected.getShortestRoute());
+            assertThat(sut.getLongestRoute()).as(lines.toString()).isEqualTo(expected.getLongestRoute());
+        }
+    }
+
+    @Test
+    void branchAndBoundDistancesTooLarge() {
+        var sut = new Day09WithBranchAndBound("London to Dublin = 2000000000", "London to Belfast = 2000000000");
+        assertThatThrownBy(sut::getLongestRoute).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    void heldKarpDistancesTooLarge() {
+        // the same input has to fail with both engines instead of returning an overflowed distance
+        var sut = new Day09("London to Dublin = 2000000000", "London to Belfast = 2000000000");
+        assertThatThrownBy(sut::getShortestRoute).isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(sut::getLongestRoute).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    /**
+     * A route and its reverse have the same distance, so either of them is fine.
+     */
+    private static void assertThatLocationsInEitherDirection(final Route route, final String... expected) {
+        var reversed = new ArrayList<>(List.of(expected));
+        Collections.reverse(reversed);
+        assertThat(route.locations()).as(route.toString()).isIn(List.of(expected), reversed);
+    }
 }
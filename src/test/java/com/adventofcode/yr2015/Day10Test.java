@@ -1,11 +1,16 @@
 package com.adventofcode.yr2015;
 
-import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 public class Day10Test {
     /**
@@ -65,19 +70,45 @@ public class Day10Test {
      * the new result?
      */
     @Test
-    @Disabled
     void riddle02() {
         // given
         String input = "1113222113";
         int cycles = 50;
         // when
+        // with Strings: convert() takes 30min, convert2() still over 15min
+        long result = Day10.getLength(input, cycles);
+        // then
+        assertThat(result).isEqualTo(3579328);
+    }
+
+    @Test
+    void manyRounds() {
+        assertThat(Day10.getLength("1113222113", 60)).isEqualTo(50715976);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"1", "1113222113", "22", "3333333333333", "1111111111111111111111", ""})
+    void sameAsStrings(String input) throws NoSuchAlgorithmException {
         String result = input;
-        System.out.println("INPUT: " + input);
-        for (int i = 0; i < cycles; i++) {
-            //result = Day10.convert(result); // takes forever (30min vs. 8sec for 40 iterations)
-            result = Day10.convert2(result); // still over 15min
+        for (int rounds = 0; rounds <= 20; rounds++) {
+            assertThat(Day10.getLength(input, rounds)).isEqualTo(result.length());
+            // no round fits into the buffers
+            assertThat(Day10.getLength(input, rounds, 4)).isEqualTo(result.length());
+            byte[] expected = MessageDigest.getInstance("SHA-256").digest(result.getBytes(StandardCharsets.US_ASCII));
+            assertThat(Day10.getDigest(input, rounds, "SHA-256")).isEqualTo(expected);
+            result = Day10.convert2(result);
         }
-        // then
-        assertThat(result.length()).isEqualTo(3579328);
+    }
+
+    @Test
+    void streamedSameAsStored() {
+        assertThat(Day10.getLength("1113222113", 50, 1 << 12)).isEqualTo(3579328);
+    }
+
+    @Test
+    void invalidInput() {
+        assertThatThrownBy(() -> Day10.getLength("12a", 1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Day10.getLength("12", -1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Day10.getDigest("12", 1, "nope")).isInstanceOf(IllegalArgumentException.class);
     }
 }
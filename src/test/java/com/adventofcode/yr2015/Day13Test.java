@@ -1,7 +1,6 @@
 package com.adventofcode.yr2015;
 
 import org.github.ruderphilipp.FileHelper;
-import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
@@ -101,7 +100,6 @@ public class Day13Test {
      * yourself?</strong>
      */
     @Test
-    @Disabled
     void riddle02() {
         String fileName = "2015_13.txt";
         var lines = FileHelper.getFileContent(fileName);
@@ -1,12 +1,13 @@
 package com.adventofcode.yr2015;
 
+import org.github.ruderphilipp.CompleteEnumerationGenerator;
 import org.github.ruderphilipp.FileHelper;
 import org.junit.jupiter.api.Test;
 
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 public class Day15Test {
     /**
@@ -131,4 +132,118 @@ public class Day15Test {
         var highestScore = sut.getHighestScoreWithCaloryLimit(SPOONS, CALORIES);
         assertThat(highestScore).isEqualTo(11_171_160);
     }
+
+    @Test
+    void searchSameAsAllRecipes() {
+        var random = new Random(2015_15);
+        for (int i = 0; i < 100; i++) {
+            int count = 1 + random.nextInt(6);
+            int spoons = count + random.nextInt(20);
+            List<String> lines = new ArrayList<>();
+            for (int j = 0; j < count; j++) {
+                lines.add("I" + (char) ('a' + j) + ": capacity " + (random.nextInt(11) - 4)
+                        + ", durability " + (random.nextInt(11) - 4) + ", flavor " + (random.nextInt(11) - 4)
+                        + ", texture " + (random.nextInt(11) - 4) + ", calories " + (1 + random.nextInt(9)));
+            }
+            var sut = new Day15(lines);
+            assertThat(sut.getHighestScore(spoons)).as(lines + " " + spoons)
+                    .isEqualTo(bestOfAllRecipes(sut, spoons, OptionalInt.empty()).orElseThrow());
+
+            int calories = spoons * (1 + random.nextInt(9));
+            var expected = bestOfAllRecipes(sut, spoons, OptionalInt.of(calories));
+            if (expected.isPresent()) {
+                assertThat(sut.getHighestScoreWithCaloryLimit(spoons, calories)).as(lines + " " + spoons + " " + calories)
+                        .isEqualTo(expected.getAsLong());
+            } else {
+                assertThatThrownBy(() -> sut.getHighestScoreWithCaloryLimit(spoons, calories))
+                        .isInstanceOf(NoSuchElementException.class);
+            }
+        }
+    }
+
+    /**
+     * @param calories exact total of the recipes, empty for no limit
+     */
+    private static OptionalLong bestOfAllRecipes(final Day15 sut, final int spoons, final OptionalInt calories) {
+        var ingredients = sut.getIngredients().stream().sorted(Comparator.comparing(Ingredient::name)).toList();
+        return CompleteEnumerationGenerator.streamCompositions(ingredients.size(), spoons, 1, false)
+                .map(amounts -> {
+                    Map<Ingredient, Integer> recipe = new HashMap<>();
+                    for (int i = 0; i < amounts.length; i++) {
+                        recipe.put(ingredients.get(i), amounts[i]);
+                    }
+                    return recipe;
+                })
+                .filter(recipe -> calories.isEmpty() || Day15.getCalories(recipe) == calories.getAsInt())
+                .mapToLong(Day15::getScore)
+                .max();
+    }
+
+    @Test
+    void noRecipe() {
+        var sut = new Day15(List.of(
+                "Butterscotch: capacity -1, durability -2, flavor 6, texture 3, calories 8",
+                "Cinnamon: capacity 2, durability 3, flavor -2, texture -1, calories 3"
+        ));
+        assertThatThrownBy(() -> sut.getHighestScore(1)).isInstanceOf(NoSuchElementException.class);
+        // the only recipe with two spoons is one of each (1 * 1 * 4 * 2 with 8 + 3 calories)
+        assertThat(sut.getHighestScoreWithCaloryLimit(2, 11)).isEqualTo(8);
+        assertThatThrownBy(() -> sut.getHighestScoreWithCaloryLimit(2, 12)).isInstanceOf(NoSuchElementException.class);
+    }
+
+    @Test
+    void negativeCalorieLimit() {
+        var sut = new Day15(List.of(
+                "Frosting: capacity 1, durability 1, flavor 1, texture 1, calories -1",
+                "Sugar: capacity 2, durability 2, flavor 2, texture 2, calories 1"
+        ));
+        // (2, 1) has -1 calories and scores 4^4, the better (1, 2) has +1 calories
+        assertThat(sut.getHighestScore(3)).isEqualTo(625);
+        assertThat(sut.getHighestScoreWithCaloryLimit(3, -1)).isEqualTo(256);
+        assertThatThrownBy(() -> sut.getHighestScoreWithCaloryLimit(3, -2)).isInstanceOf(NoSuchElementException.class);
+    }
+
+    @Test
+    void boundsCutOffHopelessRecipes() {
+        // no texture at all, so every recipe scores 0, and at least one calorie per spoon
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            lines.add("I" + (char) ('a' + i) + ": capacity " + i + ", durability 1, flavor 1, texture -1, calories " + (i + 1));
+        }
+        var sut = new Day15(lines);
+        assertThat(sut.getHighestScore(1000)).isZero();
+        assertThatThrownBy(() -> sut.getHighestScoreWithCaloryLimit(1000, 999)).isInstanceOf(NoSuchElementException.class);
+    }
+
+    @Test
+    void manySpoons() {
+        var sut = new Day15(List.of(
+                "Sprinkles: capacity 2, durability 0, flavor -2, texture 0, calories 3",
+                "Butterscotch: capacity 0, durability 5, flavor -3, texture 0, calories 3",
+                "Chocolate: capacity 0, durability 0, flavor 5, texture -1, calories 8",
+                "Candy: capacity 0, durability -1, flavor 0, texture 5, calories 8"
+        ));
+        // checked once by trying all 166 million recipes
+        assertThat(sut.getHighestScore(1000)).isEqualTo(213_827_871_528L);
+        assertThat(sut.getHighestScoreWithCaloryLimit(1000, 5000)).isEqualTo(17_705_737_728L);
+    }
+
+    @Test
+    void tenIngredientsWithThousandSpoons() {
+        var sut = new Day15(List.of(
+                "Apricot: capacity 0, durability -2, flavor 5, texture -3, calories 5",
+                "Butter: capacity 2, durability 1, flavor 0, texture 2, calories 2",
+                "Cherry: capacity 1, durability -4, flavor -2, texture -5, calories 4",
+                "Dates: capacity 0, durability -2, flavor -1, texture 5, calories 8",
+                "Eggs: capacity 1, durability 5, flavor -2, texture -4, calories 6",
+                "Figs: capacity -3, durability 2, flavor -2, texture -1, calories 9",
+                "Ginger: capacity -1, durability -2, flavor 0, texture 2, calories 8",
+                "Honey: capacity -2, durability 3, flavor 1, texture -1, calories 5",
+                "Icing: capacity 2, durability 0, flavor -1, texture -1, calories 8",
+                "Jam: capacity 3, durability 3, flavor 4, texture 3, calories 5"
+        ));
+        // same results as without cutting by the amounts above and by the common divisor of the calories (takes minutes)
+        assertThat(sut.getHighestScore(1000)).isEqualTo(103_936_452_802_308L);
+        assertThat(sut.getHighestScoreWithCaloryLimit(1000, 5000)).isEqualTo(102_457_472_931_072L);
+    }
 }
@@ -1,9 +1,9 @@
 package com.adventofcode.yr2016;
 
-import org.apache.commons.codec.digest.DigestUtils;
 import org.junit.jupiter.api.Test;
 
-import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -31,31 +31,17 @@ public class Day05Test {
     @Test
     void example1() {
         var doorId = "abc";
-        String result = getHash(doorId);
+        String result = Day05_2016.getPassword(doorId);
         assertThat(result).isEqualTo("18f47a30");
     }
 
     @Test
     void riddle1() {
         var doorId = "abbhdwsy";
-        String result = getHash(doorId);
+        String result = Day05_2016.getPassword(doorId);
         assertThat(result).isEqualTo("801b56a7");
     }
 
-    private String getHash(String salt) {
-        var sb = new StringBuilder();
-        int currentCounter = 0;
-        while (sb.length() < 8) {
-            String password = salt + currentCounter++;
-            String myHash = DigestUtils.md5Hex(password);
-
-            if (myHash.startsWith("00000")) {
-                sb.append(myHash.charAt(5));
-            }
-        }
-        return sb.toString();
-    }
-
     /**
      * As the door slides open, you are presented with a second door that uses a slightly more inspired security
      * mechanism. Clearly unimpressed by the last version (in what movie is the password decrypted in order?!), the
@@ -80,37 +66,23 @@ public class Day05Test {
     void example2() {
         var salt = "abc";
 
-        var result = getHashForDoor2(salt);
+        var result = Day05_2016.getPasswordForDoor2(salt);
 
         assertThat(result).isEqualTo("05ace8e3");
     }
 
-    private String getHashForDoor2(String salt) {
-        String[] result = new String[8];
-        Arrays.fill(result, PLACEHOLDER);
-        int currentCounter = 0;
-        while (!allFilled(result)) {
-            String password = salt + currentCounter++;
-            String myHash = DigestUtils.md5Hex(password);
-
-            if (myHash.startsWith("00000")) {
-                try {
-                    int pos = Integer.parseInt(String.valueOf(myHash.charAt(5)));
-                    if (pos < result.length && result[pos].equals(PLACEHOLDER)) {
-                        result[pos] = String.valueOf(myHash.charAt(6));
-                    }
-                } catch (NumberFormatException e) {
-                    // ignored as invalid position in array
-                }
-            }
-        }
-        return String.join("", result);
-    }
+    @Test
+    void example2_animation() {
+        var salt = "abc";
+        List<String> frames = new ArrayList<>();
 
-    private static final String PLACEHOLDER = "_";
+        var result = Day05_2016.getPasswordForDoor2(salt, frames::add);
 
-    private boolean allFilled(String[] result) {
-        return !Arrays.asList(result).contains(PLACEHOLDER);
+        assertThat(result).isEqualTo("05ace8e3");
+        // one frame per character in the order of the counters
+        assertThat(frames).hasSize(8);
+        assertThat(frames).startsWith("_5______", "_5__e___");
+        assertThat(frames).endsWith("05ace8e3");
     }
 
     /**
@@ -120,7 +92,7 @@ public class Day05Test {
     @Test
     void riddle2() {
         var doorId = "abbhdwsy";
-        String result = getHashForDoor2(doorId);
+        String result = Day05_2016.getPasswordForDoor2(doorId);
         assertThat(result).isEqualTo("424a0197");
     }
 }
@@ -2,10 +2,13 @@ package org.github.ruderphilipp;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 public class CompleteEnumerationGeneratorTest {
 
@@ -68,6 +71,54 @@ public class CompleteEnumerationGeneratorTest {
         assertThat(result).containsExactlyInAnyOrderElementsOf(expected);
     }
 
+    @Test
+    void permutationsInLexicographicOrder() {
+        var iterator = CompleteEnumerationGenerator.permutations(3);
+        List<String> result = new ArrayList<>();
+        int[] first = null;
+        while (iterator.hasNext()) {
+            int[] next = iterator.next();
+            if (first == null)
+                first = next;
+            // always the same array
+            assertThat(next).isSameAs(first);
+            result.add(Arrays.toString(next));
+        }
+        assertThat(result).containsExactly("[0, 1, 2]", "[0, 2, 1]", "[1, 0, 2]", "[1, 2, 0]", "[2, 0, 1]", "[2, 1, 0]");
+        assertThat(CompleteEnumerationGenerator.permutations(0).hasNext()).isFalse();
+    }
+
+    @Test
+    void parallelStreamSameAsSequential() {
+        List<String> expected = new ArrayList<>();
+        CompleteEnumerationGenerator.permutations(8).forEachRemaining(x -> expected.add(Arrays.toString(x)));
+        assertThat(expected).hasSize(40320).doesNotHaveDuplicates();
+
+        var result = CompleteEnumerationGenerator.streamPermutations(8, true)
+                .map(Arrays::toString)
+                .toList();
+        assertThat(result).isEqualTo(expected);
+    }
+
+    @Test
+    void rankAndUnrank() {
+        var iterator = CompleteEnumerationGenerator.permutations(6);
+        int[] unranked = new int[6];
+        long rank = 0;
+        while (iterator.hasNext()) {
+            int[] next = iterator.next();
+            assertThat(CompleteEnumerationGenerator.rank(next)).isEqualTo(rank);
+            CompleteEnumerationGenerator.unrank(rank, unranked);
+            assertThat(unranked).isEqualTo(next);
+            rank++;
+        }
+
+        int[] last = new int[20];
+        CompleteEnumerationGenerator.unrank(2_432_902_008_176_639_999L, last);
+        assertThat(last).startsWith(19, 18, 17).endsWith(2, 1, 0);
+        assertThatThrownBy(() -> CompleteEnumerationGenerator.unrank(6, new int[3])).isInstanceOf(IllegalArgumentException.class);
+    }
+
     @Test
     void combinator_2_4() {
         int elements = 2;
@@ -107,4 +158,32 @@ public class CompleteEnumerationGeneratorTest {
         var result = CompleteEnumerationGenerator.getBucketPicks(elements, picks);
         assertThat(result).containsExactlyInAnyOrderElementsOf(expected);
     }
+
+    @Test
+    void compositionsWithMinimum() {
+        List<String> result = new ArrayList<>();
+        CompleteEnumerationGenerator.forEachComposition(3, 4, 0, x -> result.add(Arrays.toString(x)));
+        assertThat(result).hasSize(15).startsWith("[0, 0, 4]", "[0, 1, 3]").endsWith("[3, 1, 0]", "[4, 0, 0]");
+
+        result.clear();
+        CompleteEnumerationGenerator.forEachComposition(3, 7, 2, x -> result.add(Arrays.toString(x)));
+        assertThat(result).containsExactly("[2, 2, 3]", "[2, 3, 2]", "[3, 2, 2]");
+
+        result.clear();
+        CompleteEnumerationGenerator.forEachComposition(3, 5, 2, x -> result.add(Arrays.toString(x)));
+        assertThat(result).isEmpty();
+    }
+
+    @Test
+    void parallelCompositionsSameAsSequential() {
+        List<String> expected = new ArrayList<>();
+        CompleteEnumerationGenerator.forEachComposition(4, 30, 1, x -> expected.add(Arrays.toString(x)));
+        assertThat(expected).hasSize(3654).doesNotHaveDuplicates();
+
+        var result = CompleteEnumerationGenerator.streamCompositions(4, 30, 1, true)
+                .map(Arrays::toString)
+                .toList();
+        assertThat(result).isEqualTo(expected);
+        assertThat(CompleteEnumerationGenerator.streamCompositions(4, 100, 1, true).count()).isEqualTo(156_849);
+    }
 }
@@ -0,0 +1,41 @@
+package org.github.ruderphilipp;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LineSplitterTest {
+
+    private static ByteBuffer bytes(String text) {
+        return ByteBuffer.wrap(text.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    void behindNextLineBreak() {
+        // middle is 5
+        assertThat(LineSplitter.split(bytes("ab\ncdefg\nhij"), 0, 13)).isEqualTo(9);
+    }
+
+    @Test
+    void behindPreviousLineBreak() {
+        assertThat(LineSplitter.split(bytes("ab\ncdefghijk"), 0, 12)).isEqualTo(3);
+    }
+
+    @Test
+    void noLineBreak() {
+        assertThat(LineSplitter.split(bytes("abcdefghijk"), 0, 11)).isEqualTo(LineSplitter.NO_SPLIT);
+        // a line break at the very end does not split the range
+        assertThat(LineSplitter.split(bytes("abcdefghij\n"), 0, 11)).isEqualTo(LineSplitter.NO_SPLIT);
+        assertThat(LineSplitter.split(bytes("\nabcdefghij"), 1, 11)).isEqualTo(LineSplitter.NO_SPLIT);
+    }
+
+    @Test
+    void onlyWithinRange() {
+        var input = bytes("a\nbcdefghij\nk");
+        assertThat(LineSplitter.split(input, 2, 11)).isEqualTo(LineSplitter.NO_SPLIT);
+        assertThat(LineSplitter.split(input, 2, 13)).isEqualTo(12);
+    }
+}
@@ -0,0 +1,54 @@
+package org.github.ruderphilipp;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LongHashSetTest {
+
+    @Test
+    void addAndContains() {
+        var sut = new LongHashSet();
+        assertThat(sut.isEmpty()).isTrue();
+        assertThat(sut.add(0)).isTrue();
+        assertThat(sut.add(0)).isFalse();
+        assertThat(sut.add(-1)).isTrue();
+        assertThat(sut.add(Long.MIN_VALUE)).isTrue();
+        assertThat(sut.size()).isEqualTo(3);
+        assertThat(sut.contains(0)).isTrue();
+        assertThat(sut.contains(-1)).isTrue();
+        assertThat(sut.contains(1)).isFalse();
+    }
+
+    @Test
+    void sameAsHashSet() {
+        var random = new Random(42);
+        var sut = new LongHashSet(4);
+        Set<Long> expected = new HashSet<>();
+        for (int i = 0; i < 100_000; i++) {
+            long value = random.nextInt(50_000) - 25_000;
+            assertThat(sut.add(value)).isEqualTo(expected.add(value));
+        }
+        assertThat(sut.size()).isEqualTo(expected.size());
+        Set<Long> all = new HashSet<>();
+        sut.forEach(all::add);
+        assertThat(all).isEqualTo(expected);
+    }
+
+    @Test
+    void addAll() {
+        var a = new LongHashSet();
+        var b = new LongHashSet();
+        a.add(1);
+        a.add(2);
+        b.add(2);
+        b.add(0);
+        a.addAll(b);
+        assertThat(a.size()).isEqualTo(3);
+        assertThat(a.contains(0)).isTrue();
+    }
+}
@@ -0,0 +1,35 @@
+package org.github.ruderphilipp;
+
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SaltedMd5Test {
+
+    @ParameterizedTest
+    @CsvSource({"abc, 0", "abc, 8", "abc, 99", "iwrupvqb, 9958218", "abcdefghijklmnopqrstuvwxyzabcdefghijklmnopqrstuvwxyzabcdefghijkl, 9"})
+    void sameAsHexString(String salt, long counter) {
+        var sut = new SaltedMd5(salt, counter);
+        // a few times to also cover the counter increments with carry
+        for (int i = 0; i < 15; i++) {
+            var expected = DigestUtils.md5Hex(salt + (counter + i));
+            assertThat(Hex.encodeHexString(sut.digest())).isEqualTo(expected);
+            assertThat(sut.getCounter()).isEqualTo(counter + i);
+            sut.increment();
+        }
+    }
+
+    @Test
+    void nibbles() {
+        byte[] digest = {0x00, 0x00, 0x0f, 0x5a};
+        assertThat(SaltedMd5.startsWithZeros(digest, 5)).isTrue();
+        assertThat(SaltedMd5.startsWithZeros(digest, 6)).isFalse();
+        assertThat(SaltedMd5.nibble(digest, 5)).isEqualTo(0xf);
+        assertThat(SaltedMd5.nibble(digest, 6)).isEqualTo(0x5);
+        assertThat(SaltedMd5.nibble(digest, 7)).isEqualTo(0xa);
+    }
+}